@@ -0,0 +1,142 @@
+package compiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import interpreter.command.BlocksCommand;
+
+// Compila o programa para um jar executável: o código Java gerado por
+// JavaGenerator vai junto com as classes do interpretador que ele chama, e
+// o jar roda com um simples java -jar.
+public class JarCompiler {
+
+    private static final String MAIN = "Main";
+
+    private JarCompiler() {
+    }
+
+    public static void compile(BlocksCommand program, String sourceName, Path jar) throws IOException {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null)
+            throw new IOException("no Java compiler available; a JDK is required");
+
+        Path runtime = runtimeLocation();
+        Path tmp = Files.createTempDirectory("mrbi");
+        try {
+            Path source = tmp.resolve(MAIN + ".java");
+            Files.write(source, new JavaGenerator(MAIN, sourceName).generate(program)
+                    .getBytes(StandardCharsets.UTF_8));
+
+            StringWriter diagnostics = new StringWriter();
+            List<String> options = Arrays.asList("-d", tmp.toString(), "-cp", runtime.toString(), "--release", "17",
+                    "-encoding", "UTF-8", "-nowarn");
+            boolean ok = javac.getTask(diagnostics, null, null, options, null,
+                    javac.getStandardFileManager(null, null, StandardCharsets.UTF_8).getJavaFileObjects(source.toFile()))
+                    .call();
+            if (!ok)
+                throw new IOException("generated code failed to compile:\n" + diagnostics);
+
+            write(jar, tmp, runtime);
+        } finally {
+            delete(tmp);
+        }
+    }
+
+    // Diretório ou jar de onde veio o interpretador.
+    private static Path runtimeLocation() throws IOException {
+        try {
+            return Paths.get(JarCompiler.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException | NullPointerException e) {
+            throw new IOException("unable to locate the runtime classes");
+        }
+    }
+
+    private static void write(Path jar, Path classes, Path runtime) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, MAIN);
+
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            try (Stream<Path> files = Files.list(classes)) {
+                List<Path> generated = new ArrayList<Path>();
+                files.filter(p -> p.getFileName().toString().endsWith(".class")).forEach(generated::add);
+                for (Path p : generated) {
+                    try (InputStream in = Files.newInputStream(p)) {
+                        copy(out, p.getFileName().toString(), in);
+                    }
+                }
+            }
+
+            if (Files.isDirectory(runtime)) {
+                List<Path> found = new ArrayList<Path>();
+                try (Stream<Path> files = Files.walk(runtime)) {
+                    files.filter(Files::isRegularFile).forEach(found::add);
+                }
+
+                for (Path p : found) {
+                    String name = runtime.relativize(p).toString().replace('\\', '/');
+                    if (isRuntime(name)) {
+                        try (InputStream in = Files.newInputStream(p)) {
+                            copy(out, name, in);
+                        }
+                    }
+                }
+            } else {
+                try (JarFile from = new JarFile(runtime.toFile())) {
+                    Enumeration<JarEntry> entries = from.entries();
+                    while (entries.hasMoreElements()) {
+                        JarEntry e = entries.nextElement();
+                        if (!e.isDirectory() && isRuntime(e.getName())) {
+                            try (InputStream in = from.getInputStream(e)) {
+                                copy(out, e.getName(), in);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Só o que o código gerado alcança: as classes do interpretador e o
+    // suporte em tempo de execução, sem analisador, daemon ou compilador.
+    private static boolean isRuntime(String name) {
+        return name.endsWith(".class")
+                && (name.startsWith("interpreter/") || name.startsWith("compiler/RuntimeSupport"));
+    }
+
+    private static void copy(JarOutputStream out, String name, InputStream in) throws IOException {
+        out.putNextEntry(new JarEntry(name));
+        in.transferTo(out);
+        out.closeEntry();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            List<Path> all = new ArrayList<Path>();
+            files.sorted(Comparator.reverseOrder()).forEach(all::add);
+            for (Path p : all)
+                Files.deleteIfExists(p);
+        }
+    }
+
+}
@@ -0,0 +1,465 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import interpreter.command.AssignCommand;
+import interpreter.command.BlocksCommand;
+import interpreter.command.Command;
+import interpreter.command.ForCommand;
+import interpreter.command.IfCommand;
+import interpreter.command.OutputCommand;
+import interpreter.command.OutputOp;
+import interpreter.command.SwitchCommand;
+import interpreter.command.UnlessCommand;
+import interpreter.command.UntilCommand;
+import interpreter.command.WhileCommand;
+import interpreter.expr.AccessExpr;
+import interpreter.expr.ArrayExpr;
+import interpreter.expr.BinaryExpr;
+import interpreter.expr.BoolExpr;
+import interpreter.expr.BoolOp;
+import interpreter.expr.CompositeBoolExpr;
+import interpreter.expr.ConstExpr;
+import interpreter.expr.ConvExpr;
+import interpreter.expr.Expr;
+import interpreter.expr.FunctionExpr;
+import interpreter.expr.InputExpr;
+import interpreter.expr.NotBoolExpr;
+import interpreter.expr.SetExpr;
+import interpreter.expr.SingleBoolExpr;
+import interpreter.expr.Variable;
+import interpreter.value.BigIntegerValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+// Traduz o programa para uma classe Java. As variáveis viram campos
+// estáticos, para que os comandos possam ser divididos em vários métodos
+// (a JVM limita o tamanho de cada um), e cada operação chama o mesmo método
+// estático que o interpretador usa.
+class JavaGenerator {
+
+    // Comandos por método, contando os aninhados, e constantes e variáveis
+    // por classe: o inicializador estático também está sujeito ao limite de
+    // 64 KB.
+    private static final int PART_SIZE = 64;
+    private static final int CONSTANTS_SIZE = 1024;
+    private static final int VARIABLES_SIZE = 1024;
+
+    private String className;
+    private String sourceName;
+
+    private Map<Integer, String> variables = new TreeMap<Integer, String>();
+    private Map<ConstExpr, String> constants = new IdentityHashMap<ConstExpr, String>();
+    private List<String> constantInits = new ArrayList<String>();
+    private Map<Command, Integer> weights = new IdentityHashMap<Command, Integer>();
+    private StringBuilder methods = new StringBuilder();
+    private StringBuilder body;
+    private int indent;
+    private int temps;
+    private int parts;
+
+    JavaGenerator(String className, String sourceName) {
+        this.className = className;
+        this.sourceName = sourceName;
+    }
+
+    String generate(BlocksCommand program) {
+        List<String> main = split(program.getCommands());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("// Gerado por mrbi --compile a partir de ").append(sourceName).append(".\n\n");
+        sb.append("import compiler.RuntimeSupport;\n");
+        sb.append("import interpreter.expr.*;\n");
+        sb.append("import interpreter.util.InterpreterException;\n");
+        sb.append("import interpreter.value.*;\n\n");
+        sb.append("public class ").append(className).append(" {\n\n");
+        constants(sb);
+        variables(sb);
+
+        sb.append("    public static void main(String[] args) {\n");
+        sb.append("        try {\n");
+        for (String part : main)
+            sb.append("            ").append(part).append("();\n");
+        sb.append("        } catch (InterpreterException e) {\n");
+        sb.append("            RuntimeSupport.error(e);\n");
+        sb.append("        } catch (RuntimeException e) {\n");
+        sb.append("            RuntimeSupport.internalError(e);\n");
+        sb.append("        }\n");
+        sb.append("    }\n\n");
+        sb.append(methods);
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    // Divide os comandos em métodos de até PART_SIZE comandos, contando os
+    // aninhados, e devolve os nomes na ordem de chamada. Um comando maior
+    // que isso fica sozinho num método, e seus blocos são divididos de novo
+    // ao gerá-lo.
+    private List<String> split(List<Command> cmds) {
+        List<String> names = new ArrayList<String>();
+        int from = 0;
+        int size = 0;
+        for (int i = 0; i < cmds.size(); i++) {
+            int w = weight(cmds.get(i));
+            if (i > from && size + w > PART_SIZE) {
+                names.add(part(cmds.subList(from, i)));
+                from = i;
+                size = 0;
+            }
+            size += w;
+        }
+        if (from < cmds.size())
+            names.add(part(cmds.subList(from, cmds.size())));
+
+        return names;
+    }
+
+    private String part(List<Command> cmds) {
+        StringBuilder outer = body;
+        int outerIndent = indent;
+
+        String name = "part" + parts++;
+        body = new StringBuilder();
+        indent = 1;
+        line("private static void " + name + "() {");
+        indent++;
+        for (Command c : cmds)
+            command(c);
+        indent--;
+        line("}");
+        line("");
+        methods.append(body);
+
+        body = outer;
+        indent = outerIndent;
+        return name;
+    }
+
+    // Número de comandos em cmd, incluindo ele mesmo e os aninhados. Fica
+    // guardado: numa cadeia de elsif cada nível pergunta de novo.
+    private int weight(Command cmd) {
+        if (cmd == null)
+            return 0;
+
+        Integer known = weights.get(cmd);
+        if (known != null)
+            return known;
+
+        int w = 1;
+        if (cmd instanceof BlocksCommand) {
+            w = 0;
+            for (Command c : ((BlocksCommand) cmd).getCommands())
+                w += weight(c);
+        } else if (cmd instanceof IfCommand) {
+            w += weight(((IfCommand) cmd).getThen()) + weight(((IfCommand) cmd).getElse());
+        } else if (cmd instanceof UnlessCommand) {
+            w += weight(((UnlessCommand) cmd).getThen()) + weight(((UnlessCommand) cmd).getElse());
+        } else if (cmd instanceof SwitchCommand) {
+            w = weight(((SwitchCommand) cmd).getChain());
+        } else if (cmd instanceof WhileCommand) {
+            w += weight(((WhileCommand) cmd).getCommands());
+        } else if (cmd instanceof UntilCommand) {
+            w += weight(((UntilCommand) cmd).getCommands());
+        } else if (cmd instanceof ForCommand) {
+            w += weight(((ForCommand) cmd).getCommands());
+        }
+
+        weights.put(cmd, w);
+        return w;
+    }
+
+    private static List<Command> commands(Command cmd) {
+        if (cmd instanceof BlocksCommand)
+            return ((BlocksCommand) cmd).getCommands();
+
+        return List.of(cmd);
+    }
+
+    private void line(String s) {
+        if (!s.isEmpty()) {
+            for (int i = 0; i < indent; i++)
+                body.append("    ");
+        }
+        body.append(s).append('\n');
+    }
+
+    private String temp(String prefix) {
+        return prefix + temps++;
+    }
+
+    private void command(Command cmd) {
+        if (cmd instanceof BlocksCommand) {
+            for (Command c : ((BlocksCommand) cmd).getCommands())
+                command(c);
+        } else if (cmd instanceof AssignCommand) {
+            assign((AssignCommand) cmd);
+        } else if (cmd instanceof OutputCommand) {
+            OutputCommand c = (OutputCommand) cmd;
+            String str = c.getExpr() == null ? "\"\"" : expr(c.getExpr()) + ".toString()";
+            line((c.getOp() == OutputOp.PutsOp ? "System.out.println(" : "System.out.print(") + str + ");");
+        } else if (cmd instanceof IfCommand) {
+            IfCommand c = (IfCommand) cmd;
+            branches(boolExpr(c.getCond()), c.getThen(), c.getElse());
+        } else if (cmd instanceof UnlessCommand) {
+            UnlessCommand c = (UnlessCommand) cmd;
+            branches("!" + boolExpr(c.getCond()), c.getThen(), c.getElse());
+        } else if (cmd instanceof SwitchCommand) {
+            // A cadeia original tem a mesma semântica; o JIT cuida do resto.
+            command(((SwitchCommand) cmd).getChain());
+        } else if (cmd instanceof WhileCommand) {
+            WhileCommand c = (WhileCommand) cmd;
+            loop(boolExpr(c.getCond()), c.getCommands());
+        } else if (cmd instanceof UntilCommand) {
+            UntilCommand c = (UntilCommand) cmd;
+            loop("!" + boolExpr(c.getCond()), c.getCommands());
+        } else if (cmd instanceof ForCommand) {
+            forLoop((ForCommand) cmd);
+        } else {
+            throw new IllegalArgumentException("Unknown command " + cmd.getClass().getSimpleName());
+        }
+    }
+
+    private void branches(String cond, Command thenCmds, Command elseCmds) {
+        line("if (" + cond + ") {");
+        block(thenCmds);
+        if (elseCmds != null) {
+            line("} else {");
+            block(elseCmds);
+        }
+        line("}");
+    }
+
+    private void loop(String cond, Command body) {
+        line("while (" + cond + ") {");
+        block(body);
+        line("}");
+    }
+
+    // Corpo de laço ou ramo; se for grande, vira chamadas a métodos.
+    private void block(Command cmd) {
+        indent++;
+        if (weight(cmd) > PART_SIZE) {
+            for (String part : split(commands(cmd)))
+                line(part + "();");
+        } else {
+            command(cmd);
+        }
+        indent--;
+    }
+
+    private void forLoop(ForCommand c) {
+        int line = c.getLine();
+        String array = temp("a");
+        String i = temp("i");
+
+        line("{");
+        indent++;
+        line("ArrayValue " + array + " = RuntimeSupport.iterate(" + line + ", " + expr(c.getExpr()) + ");");
+        line("for (int " + i + " = 0; " + i + " < " + array + ".size(); " + i + "++) {");
+        indent++;
+        line(variable(c.getVariable()) + " = " + array + ".get(" + i + ");");
+        indent--;
+        block(c.getCommands());
+        line("}");
+        indent--;
+        line("}");
+    }
+
+    // Todos os valores são avaliados antes de qualquer atribuição, e base e
+    // índice de um elemento só no momento de atribuir, como no interpretador.
+    private void assign(AssignCommand c) {
+        List<SetExpr> left = c.getLeft();
+        List<Expr> right = c.getRight();
+        if (left.size() != right.size()) {
+            line("RuntimeSupport.fail(" + c.getLine() + ");");
+            return;
+        }
+
+        if (left.size() == 1 && left.get(0) instanceof Variable) {
+            line(variable((Variable) left.get(0)) + " = " + expr(right.get(0)) + ";");
+            return;
+        }
+
+        List<String> values = new ArrayList<String>();
+        line("{");
+        indent++;
+        for (Expr e : right) {
+            String t = temp("t");
+            line("Value<?> " + t + " = " + expr(e) + ";");
+            values.add(t);
+        }
+        for (int i = 0; i < left.size(); i++)
+            store(left.get(i), values.get(i));
+        indent--;
+        line("}");
+    }
+
+    private void store(SetExpr target, String value) {
+        if (target instanceof Variable) {
+            line(variable((Variable) target) + " = " + value + ";");
+        } else {
+            AccessExpr a = (AccessExpr) target;
+            int line = a.getLine();
+            line("AccessExpr.store(" + line + ", " + expr(a.getBase()) + ", AccessExpr.index(" + line + ", "
+                    + expr(a.getIndex()) + "), " + value + ");");
+        }
+    }
+
+    private String variable(Variable v) {
+        variables.put(v.getSlot(), v.getName());
+        return "V" + v.getSlot() / VARIABLES_SIZE + ".v" + v.getSlot();
+    }
+
+    private String expr(Expr e) {
+        if (e instanceof Variable)
+            return variable((Variable) e);
+
+        if (e instanceof ConstExpr)
+            return constant((ConstExpr) e);
+
+        if (e instanceof AccessExpr) {
+            AccessExpr a = (AccessExpr) e;
+            return "AccessExpr.load(" + a.getLine() + ", " + expr(a.getBase()) + ", AccessExpr.index(" + a.getLine()
+                    + ", " + expr(a.getIndex()) + "))";
+        }
+
+        if (e instanceof BinaryExpr) {
+            BinaryExpr b = (BinaryExpr) e;
+            return "BinaryExpr.apply(" + b.getLine() + ", BinaryOp." + b.getOp() + ", " + expr(b.getLeft()) + ", "
+                    + expr(b.getRight()) + ")";
+        }
+
+        if (e instanceof ConvExpr) {
+            ConvExpr c = (ConvExpr) e;
+            return "ConvExpr.apply(" + c.getLine() + ", ConvOp." + c.getOp() + ", " + expr(c.getExpr()) + ")";
+        }
+
+        if (e instanceof FunctionExpr) {
+            FunctionExpr f = (FunctionExpr) e;
+            return "FunctionExpr.apply(" + f.getLine() + ", FunctionOp." + f.getOp() + ", " + expr(f.getExpr())
+                    + ")";
+        }
+
+        if (e instanceof InputExpr)
+            return "InputExpr.read(InputOp." + ((InputExpr) e).getOp() + ")";
+
+        if (e instanceof ArrayExpr) {
+            StringBuilder sb = new StringBuilder("RuntimeSupport.array(");
+            List<Expr> items = ((ArrayExpr) e).getExprs();
+            for (int i = 0; i < items.size(); i++) {
+                if (i > 0)
+                    sb.append(", ");
+                sb.append(expr(items.get(i)));
+            }
+            return sb.append(")").toString();
+        }
+
+        throw new IllegalArgumentException("Unknown expression " + e.getClass().getSimpleName());
+    }
+
+    private String boolExpr(BoolExpr e) {
+        if (e instanceof SingleBoolExpr) {
+            SingleBoolExpr s = (SingleBoolExpr) e;
+            return "SingleBoolExpr.test(" + s.getLine() + ", RelOp." + s.getOp() + ", " + expr(s.getLeft()) + ", "
+                    + expr(s.getRight()) + ")";
+        }
+
+        if (e instanceof NotBoolExpr)
+            return "!" + boolExpr(((NotBoolExpr) e).getExpr());
+
+        if (e instanceof CompositeBoolExpr) {
+            CompositeBoolExpr c = (CompositeBoolExpr) e;
+            String op = c.getOp() == BoolOp.And ? " && " : " || ";
+            StringBuilder sb = new StringBuilder("(");
+            BoolExpr[] clauses = c.getClauses();
+            for (int i = 0; i < clauses.length; i++) {
+                if (i > 0)
+                    sb.append(op);
+                sb.append(boolExpr(clauses[i]));
+            }
+            return sb.append(")").toString();
+        }
+
+        throw new IllegalArgumentException("Unknown expression " + e.getClass().getSimpleName());
+    }
+
+    // Constantes viram campos: a mesma instância a cada avaliação, como o
+    // ConstExpr devolve.
+    private String constant(ConstExpr c) {
+        String name = constants.get(c);
+        if (name != null)
+            return name;
+
+        int n = constantInits.size();
+        name = "K" + n / CONSTANTS_SIZE + ".c" + n;
+        constants.put(c, name);
+
+        Value<?> v = c.getValue();
+        String init;
+        if (v instanceof IntegerValue)
+            init = "new IntegerValue(" + ((IntegerValue) v).value() + ")";
+        else if (v instanceof BigIntegerValue)
+            init = "BigIntegerValue.valueOf(new java.math.BigInteger(\"" + v + "\"))";
+        else
+            init = "new StringValue(" + literal(((StringValue) v).value()) + ")";
+
+        constantInits.add(init);
+        return name;
+    }
+
+    private void constants(StringBuilder sb) {
+        for (int n = 0; n < constantInits.size(); n++) {
+            if (n % CONSTANTS_SIZE == 0)
+                sb.append("    private static final class K").append(n / CONSTANTS_SIZE).append(" {\n");
+
+            sb.append("        static final Value<?> c").append(n).append(" = ").append(constantInits.get(n))
+                    .append(";\n");
+
+            if (n % CONSTANTS_SIZE == CONSTANTS_SIZE - 1 || n == constantInits.size() - 1)
+                sb.append("    }\n\n");
+        }
+    }
+
+    // Variável não definida vale "".
+    private void variables(StringBuilder sb) {
+        int holder = -1;
+        for (Map.Entry<Integer, String> e : variables.entrySet()) {
+            int slot = e.getKey();
+            if (slot / VARIABLES_SIZE != holder) {
+                if (holder >= 0)
+                    sb.append("    }\n\n");
+                holder = slot / VARIABLES_SIZE;
+                sb.append("    private static final class V").append(holder).append(" {\n");
+            }
+
+            sb.append("        static Value<?> v").append(slot).append(" = new StringValue(\"\"); // ")
+                    .append(e.getValue()).append("\n");
+        }
+        if (holder >= 0)
+            sb.append("    }\n\n");
+    }
+
+    // Literal Java só com ASCII imprimível. Controles viram escapes octais:
+    // um \\u000a seria traduzido antes da análise léxica e quebraria a linha.
+    private static String literal(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\')
+                sb.append('\\').append(c);
+            else if (c < 0x20 || c == 0x7f)
+                sb.append(String.format("\\%03o", (int) c));
+            else if (c > 0x7f)
+                sb.append(String.format("\\u%04x", (int) c));
+            else
+                sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+}
@@ -0,0 +1,48 @@
+package compiler;
+
+import java.util.Vector;
+
+import interpreter.util.InterpreterException;
+import interpreter.value.ArrayValue;
+import interpreter.value.Value;
+
+// Operações do código compilado sem método estático nas classes do
+// interpretador; o resto é chamado direto nelas.
+public class RuntimeSupport {
+
+    private RuntimeSupport() {
+    }
+
+    // Uma chamada em vez de um throw, para que o código seguinte no mesmo
+    // bloco continue alcançável para o javac.
+    public static void fail(int line) {
+        throw new InterpreterException(line);
+    }
+
+    public static Value<?> array(Value<?>... values) {
+        Vector<Value<?>> v = new Vector<Value<?>>(values.length);
+        for (Value<?> value : values)
+            v.add(value);
+
+        return new ArrayValue(v);
+    }
+
+    // O arranjo percorrido por um for.
+    public static ArrayValue iterate(int line, Value<?> v) {
+        if (!(v instanceof ArrayValue))
+            throw new InterpreterException(line);
+
+        return (ArrayValue) v;
+    }
+
+    // Mesmas mensagens e código de saída do interpretador.
+    public static void error(InterpreterException e) {
+        System.out.printf("%02d: %s\n", e.getLine(), e.getMessage());
+        System.exit(1);
+    }
+
+    public static void internalError(RuntimeException e) {
+        System.err.println("Internal error: " + e.getMessage());
+    }
+
+}
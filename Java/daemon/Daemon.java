@@ -0,0 +1,164 @@
+package daemon;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import interpreter.command.BlocksCommand;
+import interpreter.expr.InputExpr;
+import interpreter.util.Governor;
+import interpreter.util.InterpreterException;
+import interpreter.util.Memory;
+import interpreter.util.RandomSource;
+import lexical.LexicalAnalysis;
+import lexical.LexicalException;
+import syntatic.Liveness;
+import syntatic.SyntaticAnalysis;
+import syntatic.SyntaticException;
+
+// Interpretador residente: uma JVM aquecida roda os scripts enviados pelo
+// mrbic por um socket Unix (ver Protocol). Cada conexão lê sua requisição
+// numa thread própria, para que um cliente parado não segure os outros; o
+// estado do interpretador é estático, então só a execução é feita uma por
+// vez, com o estado zerado antes de cada uma. Os limites do Governor dados
+// na linha de comando valem para cada requisição, com orçamento novo.
+public class Daemon {
+
+    private static final int OUTPUT_BUFFER = 8192;
+
+    private final Path socket;
+
+    // Os erros de conexão vão para o stderr do daemon, mesmo quando outra
+    // thread está com System.err apontado para um cliente.
+    private final PrintStream log = System.err;
+
+    public Daemon(Path socket) {
+        this.socket = socket;
+    }
+
+    public void serve() throws IOException {
+        Files.deleteIfExists(socket);
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            socket.toFile().deleteOnExit();
+
+            try {
+                Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                // Sistema de arquivos sem permissões POSIX.
+            }
+
+            log.println("mrbi daemon listening on " + socket);
+
+            while (true) {
+                SocketChannel ch = server.accept();
+                try {
+                    Thread t = new Thread(() -> connection(ch), "mrbi-request");
+                    t.setDaemon(true);
+                    t.start();
+                } catch (Throwable e) {
+                    // Sem thread para a conexão: só ela é recusada.
+                    log.println("Request failed: " + e);
+                    ch.close();
+                }
+            }
+        }
+    }
+
+    private void connection(SocketChannel ch) {
+        try (ch) {
+            ByteBuffer header = Protocol.readFully(ch, 5);
+            byte kind = header.get();
+            byte[] source = Protocol.readFully(ch, header.getInt()).array();
+
+            synchronized (this) {
+                handle(ch, kind, source);
+            }
+        } catch (Throwable e) {
+            // Um cliente com defeito não pode derrubar o servidor.
+            log.println("Request failed: " + e);
+        }
+    }
+
+    private void handle(SocketChannel ch, byte kind, byte[] source) throws IOException {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        InputStream input = System.in;
+
+        PrintStream out = new PrintStream(
+                new BufferedOutputStream(new FrameOutputStream(ch, Protocol.STDOUT), OUTPUT_BUFFER), false);
+        PrintStream err = new PrintStream(
+                new BufferedOutputStream(new FrameOutputStream(ch, Protocol.STDERR), OUTPUT_BUFFER), false);
+
+        int status;
+        try {
+            System.setOut(out);
+            System.setErr(err);
+            System.setIn(new StdinInputStream(ch, out));
+
+            status = run(kind, source);
+        } finally {
+            out.flush();
+            err.flush();
+
+            System.setOut(stdout);
+            System.setErr(stderr);
+            System.setIn(input);
+        }
+
+        ByteBuffer exit = ByteBuffer.allocate(4).putInt(status);
+        Protocol.writeBlock(ch, Protocol.EXIT, exit.array(), 0, 4);
+    }
+
+    private int run(byte kind, byte[] source) {
+        // As posições são resolvidas na análise: cada script começa com a
+        // tabela de nomes vazia, para que ela não cresça de um para outro.
+        Memory.reset();
+        Governor.restart();
+        RandomSource.restart();
+        InputExpr.reset();
+
+        try (LexicalAnalysis l = kind == Protocol.SOURCE_PATH
+                ? new LexicalAnalysis(new String(source, StandardCharsets.UTF_8))
+                : new LexicalAnalysis(new ByteArrayInputStream(source))) {
+            SyntaticAnalysis s = new SyntaticAnalysis(l);
+            BlocksCommand c = s.start();
+            Liveness.clearDeadVariables(c);
+            c.execute();
+            return 0;
+        } catch (SyntaticException e) {
+            System.out.printf("%02d: %s\n", e.getLine(), e.getMessage());
+        } catch (InterpreterException e) {
+            System.out.printf("%02d: %s\n", e.getLine(), e.getMessage());
+        } catch (LexicalException e) {
+            System.err.println("Internal error: " + e.getMessage());
+        } catch (OutOfMemoryError e) {
+            // Só este script falha: o finally solta tudo o que ele alocou e
+            // o próximo encontra o heap livre de novo.
+            System.err.println("Internal error: out of memory");
+        } catch (Throwable e) {
+            // Inclusive erros de carga de classe, como
+            // ExceptionInInitializerError: o cliente recebe o erro e o
+            // daemon segue atendendo.
+            System.err.println("Internal error: " + e);
+        } finally {
+            // Libera a memória do script antes de esperar o próximo.
+            Memory.reset();
+        }
+
+        return 1;
+    }
+
+}
@@ -0,0 +1,29 @@
+package daemon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+
+// Envia tudo o que recebe como quadros de resposta de um tipo.
+class FrameOutputStream extends OutputStream {
+
+    private final WritableByteChannel ch;
+    private final byte type;
+
+    FrameOutputStream(WritableByteChannel ch, byte type) {
+        this.ch = ch;
+        this.type = type;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len > 0)
+            Protocol.writeBlock(ch, type, b, off, len);
+    }
+
+}
@@ -0,0 +1,65 @@
+package daemon;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Formato entre o mrbic e o daemon:
+//
+//   requisição  kind:byte len:int source[len]
+//   resposta    { type:byte len:int data[len] }
+//   stdin       len:int data[len]
+//
+// kind é SOURCE_PATH (caminho absoluto) ou SOURCE_INLINE (texto do script).
+// A resposta tem quadros STDOUT e STDERR e termina num EXIT com o código de
+// término. A entrada só é pedida quando o script a lê: o daemon manda um
+// quadro STDIN com quantos bytes quer, e o cliente responde com até isso,
+// nada no fim da entrada.
+public class Protocol {
+
+    public static final byte SOURCE_PATH = 1;
+    public static final byte SOURCE_INLINE = 2;
+
+    public static final byte STDOUT = 1;
+    public static final byte STDERR = 2;
+    public static final byte EXIT = 3;
+    public static final byte STDIN = 4;
+
+    // Maior bloco aceito; um tamanho fora de [0, MAX_LENGTH] vem de um
+    // cliente com defeito ou malicioso e encerra só aquela conexão.
+    public static final int MAX_LENGTH = 64 << 20;
+
+    public static Path defaultSocket() {
+        return Paths.get(System.getProperty("java.io.tmpdir"), "mrbi-" + System.getProperty("user.name") + ".sock");
+    }
+
+    public static void writeBlock(WritableByteChannel ch, byte type, byte[] data, int off, int len)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(5);
+        header.put(type).putInt(len).flip();
+        writeFully(ch, header);
+        writeFully(ch, ByteBuffer.wrap(data, off, len));
+    }
+
+    public static void writeFully(WritableByteChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining())
+            ch.write(buf);
+    }
+
+    public static ByteBuffer readFully(ReadableByteChannel ch, int len) throws IOException {
+        if (len < 0 || len > MAX_LENGTH)
+            throw new IOException("Invalid block length " + len);
+
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0)
+                throw new EOFException("Connection closed");
+        }
+        return buf.flip();
+    }
+
+}
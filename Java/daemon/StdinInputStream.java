@@ -0,0 +1,55 @@
+package daemon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+// Entrada padrão da requisição, lida do cliente sob demanda.
+class StdinInputStream extends InputStream {
+
+    private final SocketChannel ch;
+    private final OutputStream stdout;
+    private boolean eof;
+
+    StdinInputStream(SocketChannel ch, OutputStream stdout) {
+        this.ch = ch;
+        this.stdout = stdout;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (eof)
+            return -1;
+
+        if (len == 0)
+            return 0;
+
+        // O que já foi escrito deve aparecer antes de pedir a entrada,
+        // como num prompt.
+        stdout.flush();
+
+        byte[] want = ByteBuffer.allocate(4).putInt(len).array();
+        Protocol.writeBlock(ch, Protocol.STDIN, want, 0, 4);
+
+        int n = Protocol.readFully(ch, 4).getInt();
+        if (n <= 0) {
+            eof = true;
+            return -1;
+        }
+
+        if (n > len)
+            throw new IOException("Invalid stdin block length " + n);
+
+        Protocol.readFully(ch, n).get(b, off, n);
+        return n;
+    }
+
+}
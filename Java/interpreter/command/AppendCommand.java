@@ -0,0 +1,38 @@
+package interpreter.command;
+
+import java.util.List;
+
+import interpreter.expr.Expr;
+import interpreter.expr.SetExpr;
+import interpreter.util.Memory;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+// s = s + e fundido. Com uma string em s, a soma é sempre concatenação.
+public class AppendCommand extends AssignCommand {
+
+    private int slot;
+    private Expr suffix;
+
+    public AppendCommand(int line, List<SetExpr> left, List<Expr> right, int slot, Expr suffix) {
+        super(line, left, right);
+        this.slot = slot;
+        this.suffix = suffix;
+    }
+
+    @Override
+    public void execute() {
+        // O sufixo só é avaliado uma vez, em qualquer dos caminhos; um
+        // inteiro vai direto para a atribuição genérica, sem caixa.
+        if (!Memory.isInteger(slot)) {
+            Value<?> v = Memory.read(slot);
+            if (v instanceof StringValue) {
+                Memory.write(slot, new StringValue(((StringValue) v).value() + suffix.expr().toString()));
+                return;
+            }
+        }
+
+        super.execute();
+    }
+
+}
@@ -1,5 +1,187 @@
 package interpreter.command;
 
-public class AssignCommand {
+import java.util.List;
+
+import interpreter.expr.AccessExpr;
+import interpreter.expr.ConstExpr;
+import interpreter.expr.Expr;
+import interpreter.expr.SetExpr;
+import interpreter.expr.Variable;
+import interpreter.util.InterpreterException;
+import interpreter.util.Memory;
+import interpreter.value.ArrayValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.Value;
+
+public class AssignCommand extends Command {
+
+    private List<SetExpr> left;
+    private List<Expr> right;
+
+    // Especializações decididas na construção: atribuições de até três
+    // alvos não usam vetor temporário, e "a[i], a[j] = a[j], a[i]" troca os
+    // elementos diretamente no arranjo.
+    private SetExpr l0, l1, l2;
+    private Expr r0, r1, r2;
+    private boolean swap;
+    // Alvo único que é variável: inteiros vão direto para a posição.
+    private Variable target;
+    // Alvo único que é elemento de arranjo: inteiros vão direto para o int[].
+    private AccessExpr element;
+
+    public AssignCommand(int line, List<SetExpr> left, List<Expr> right) {
+        super(line);
+        this.left = left;
+        this.right = right;
+
+        if (left.size() == right.size() && left.size() <= 3) {
+            l0 = left.get(0);
+            r0 = right.get(0);
+            if (left.size() > 1) {
+                l1 = left.get(1);
+                r1 = right.get(1);
+            }
+            if (left.size() > 2) {
+                l2 = left.get(2);
+                r2 = right.get(2);
+            }
+        }
+
+        swap = left.size() == 2 && right.size() == 2 && isSwap();
+
+        if (left.size() == 1 && right.size() == 1 && l0 instanceof Variable)
+            target = (Variable) l0;
+
+        if (left.size() == 1 && right.size() == 1 && l0 instanceof AccessExpr)
+            element = (AccessExpr) l0;
+    }
+
+    public List<SetExpr> getLeft() {
+        return left;
+    }
+
+    public List<Expr> getRight() {
+        return right;
+    }
+
+    @Override
+    public void execute() {
+        if (left.size() != right.size())
+            throw new InterpreterException(super.getLine());
+
+        switch (left.size()) {
+            case 1:
+                if (target != null && r0.isIntegral())
+                    target.setInt(r0.intValue());
+                else if (element != null && r0.isIntegral())
+                    element.setInt(r0.intValue());
+                else
+                    l0.setValue(r0.expr());
+                break;
+            case 2:
+                if (!swap || !swapInPlace())
+                    assignMany();
+                break;
+            default:
+                assignMany();
+                break;
+        }
+    }
+
+    // Os valores já avaliados ficam em mãos até a última escrita: um
+    // arranjo fora do heap cuja variável é sobrescrita antes só é liberado
+    // no fim da atribuição.
+    private void assignMany() {
+        Memory.defer();
+        try {
+            switch (left.size()) {
+                case 2:
+                    assign2();
+                    break;
+                case 3:
+                    assign3();
+                    break;
+                default:
+                    assignN();
+                    break;
+            }
+        } finally {
+            Memory.settle();
+        }
+    }
+
+    private void assign2() {
+        Value<?> v0 = r0.expr();
+        Value<?> v1 = r1.expr();
+        l0.setValue(v0);
+        l1.setValue(v1);
+    }
+
+    private void assign3() {
+        Value<?> v0 = r0.expr();
+        Value<?> v1 = r1.expr();
+        Value<?> v2 = r2.expr();
+        l0.setValue(v0);
+        l1.setValue(v1);
+        l2.setValue(v2);
+    }
+
+    private void assignN() {
+        // Todos os valores são avaliados antes de qualquer atribuição.
+        Value<?>[] values = new Value<?>[right.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = right.get(i).expr();
+
+        for (int i = 0; i < values.length; i++)
+            left.get(i).setValue(values[i]);
+    }
+
+    // Troca a[i] e a[j] no próprio arranjo. Devolve false quando a troca
+    // direta não se aplica (não é arranjo, índice fora dos limites...), e a
+    // atribuição genérica cuida do caso, inclusive dos erros.
+    private boolean swapInPlace() {
+        AccessExpr a = (AccessExpr) l0;
+        AccessExpr b = (AccessExpr) l1;
+
+        Value<?> base = a.getBase().expr();
+        if (!(base instanceof ArrayValue) || !a.getIndex().isIntegral() || !b.getIndex().isIntegral())
+            return false;
+
+        ArrayValue av = (ArrayValue) base;
+        int ii = a.getIndex().intValue();
+        int jj = b.getIndex().intValue();
+        if (ii < 0 || jj < 0 || ii >= av.size() || jj >= av.size())
+            return false;
+
+        av.swap(ii, jj);
+        return true;
+    }
+
+    private boolean isSwap() {
+        if (!(left.get(0) instanceof AccessExpr) || !(left.get(1) instanceof AccessExpr)
+                || !(right.get(0) instanceof AccessExpr) || !(right.get(1) instanceof AccessExpr))
+            return false;
+
+        AccessExpr t0 = (AccessExpr) left.get(0);
+        AccessExpr t1 = (AccessExpr) left.get(1);
+        AccessExpr s0 = (AccessExpr) right.get(0);
+        AccessExpr s1 = (AccessExpr) right.get(1);
+
+        return same(t0.getBase(), t1.getBase()) && same(t0.getBase(), s0.getBase())
+                && same(t0.getBase(), s1.getBase()) && same(t0.getIndex(), s1.getIndex())
+                && same(t1.getIndex(), s0.getIndex());
+    }
+
+    // Mesma variável ou mesma constante: avaliar uma vez ou duas dá o mesmo
+    // resultado e não tem efeitos colaterais.
+    private static boolean same(Expr e1, Expr e2) {
+        if (e1 instanceof Variable && e2 instanceof Variable)
+            return ((Variable) e1).getName().equals(((Variable) e2).getName());
+
+        if (e1 instanceof ConstExpr && e2 instanceof ConstExpr)
+            return ((ConstExpr) e1).getValue().equals(((ConstExpr) e2).getValue());
+
+        return false;
+    }
 
 }
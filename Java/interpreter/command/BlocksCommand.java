@@ -1,5 +1,53 @@
 package interpreter.command;
 
-public class BlocksCommand {
+import java.util.ArrayList;
+import java.util.List;
+
+import interpreter.util.Profiler;
+import interpreter.util.ResourceLimitException;
+import interpreter.util.RuntimeMetrics;
+
+public class BlocksCommand extends Command {
+
+    private List<Command> cmds;
+
+    public BlocksCommand(int line) {
+        super(line);
+        this.cmds = new ArrayList<Command>();
+    }
+
+    public void addCommand(Command cmd) {
+        cmds.add(cmd);
+    }
+
+    public List<Command> getCommands() {
+        return cmds;
+    }
+
+    @Override
+    public void execute() {
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.commandsExecuted(cmds.size());
+
+        Command cmd = null;
+        try {
+            if (Profiler.isEnabled()) {
+                for (int i = 0; i < cmds.size(); i++) {
+                    cmd = cmds.get(i);
+                    Profiler.execute(cmd);
+                }
+            } else {
+                for (int i = 0; i < cmds.size(); i++) {
+                    cmd = cmds.get(i);
+                    cmd.execute();
+                }
+            }
+        } catch (ResourceLimitException e) {
+            if (e.getLine() == 0)
+                e.setLine(cmd.getLine());
+
+            throw e;
+        }
+    }
 
 }
@@ -0,0 +1,26 @@
+package interpreter.command;
+
+import interpreter.util.Memory;
+
+// Esquece variáveis que não são mais lidas, para que o valor possa ser
+// coletado. Inserido pela análise de vivacidade (Liveness).
+public class ClearCommand extends Command {
+
+    private int[] slots;
+
+    public ClearCommand(int line, int[] slots) {
+        super(line);
+        this.slots = slots;
+    }
+
+    public int[] getSlots() {
+        return slots;
+    }
+
+    @Override
+    public void execute() {
+        for (int slot : slots)
+            Memory.clear(slot);
+    }
+
+}
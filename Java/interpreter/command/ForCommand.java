@@ -1,5 +1,60 @@
 package interpreter.command;
 
-public class ForCommand {
+import interpreter.expr.Expr;
+import interpreter.expr.Variable;
+import interpreter.util.Governor;
+import interpreter.util.InterpreterException;
+import interpreter.util.Memory;
+import interpreter.value.ArrayValue;
+import interpreter.value.Value;
+
+public class ForCommand extends Command {
+
+    private Variable var;
+    private Expr expr;
+    private Command cmds;
+    private int weight;
+
+    public ForCommand(int line, Variable var, Expr expr, Command cmds) {
+        super(line);
+        this.var = var;
+        this.expr = expr;
+        this.cmds = cmds;
+        this.weight = Governor.weight(cmds);
+    }
+
+    public Variable getVariable() {
+        return var;
+    }
+
+    public Expr getExpr() {
+        return expr;
+    }
+
+    public Command getCommands() {
+        return cmds;
+    }
+
+    @Override
+    public void execute() {
+        Value<?> v = expr.expr();
+        if (!(v instanceof ArrayValue))
+            throw new InterpreterException(super.getLine());
+
+        // O laço também segura o arranjo, que o corpo pode tirar da memória.
+        ArrayValue av = (ArrayValue) v;
+        Memory.retain(av);
+        try {
+            for (int i = 0; i < av.size(); i++) {
+                var.setValue(av.get(i));
+                cmds.execute();
+
+                if (Governor.enabled)
+                    Governor.backEdge(super.getLine(), weight);
+            }
+        } finally {
+            Memory.release(av);
+        }
+    }
 
 }
@@ -0,0 +1,36 @@
+package interpreter.command;
+
+import java.util.List;
+
+import interpreter.expr.Expr;
+import interpreter.expr.SetExpr;
+import interpreter.util.Memory;
+
+// v = v + c e v = v - c fundidos, com c inteiro constante. Se v não tem um
+// inteiro, vale a atribuição genérica.
+public class IncrementCommand extends AssignCommand {
+
+    private int slot;
+    private int delta;
+
+    public IncrementCommand(int line, List<SetExpr> left, List<Expr> right, int slot, int delta) {
+        super(line, left, right);
+        this.slot = slot;
+        this.delta = delta;
+    }
+
+    @Override
+    public void execute() {
+        if (Memory.isInteger(slot)) {
+            long n = (long) Memory.readInt(slot) + delta;
+            if (n == (int) n) {
+                Memory.writeInt(slot, (int) n);
+                return;
+            }
+        }
+
+        // Outros tipos, ou estouro: a atribuição genérica promove o valor.
+        super.execute();
+    }
+
+}
@@ -0,0 +1,45 @@
+package interpreter.command;
+
+import java.util.List;
+
+import interpreter.expr.Expr;
+import interpreter.expr.SetExpr;
+import interpreter.util.Memory;
+import interpreter.value.ArrayValue;
+import interpreter.value.Value;
+
+// x = a[i] fundido, com a variável e i variável ou constante. Strings,
+// índices negativos ou fora do arranjo e erros vão para a atribuição
+// genérica.
+public class IndexedLoadCommand extends AssignCommand {
+
+    private int target;
+    private int base;
+    private Expr index;
+
+    public IndexedLoadCommand(int line, List<SetExpr> left, List<Expr> right, int target, int base, Expr index) {
+        super(line, left, right);
+        this.target = target;
+        this.base = base;
+        this.index = index;
+    }
+
+    @Override
+    public void execute() {
+        Value<?> b = Memory.read(base);
+        if (b instanceof ArrayValue && index.isIntegral()) {
+            ArrayValue av = (ArrayValue) b;
+            int idx = index.intValue();
+            if (idx >= 0 && idx < av.size()) {
+                if (av.isPacked())
+                    Memory.writeInt(target, av.getInt(idx));
+                else
+                    Memory.write(target, av.get(idx));
+                return;
+            }
+        }
+
+        super.execute();
+    }
+
+}
@@ -0,0 +1,44 @@
+package interpreter.command;
+
+import interpreter.expr.Expr;
+import interpreter.util.RuntimeMetrics;
+
+public class OutputCommand extends Command {
+
+    private OutputOp op;
+    private Expr expr;
+
+    public OutputCommand(int line, OutputOp op, Expr expr) {
+        super(line);
+        this.op = op;
+        this.expr = expr;
+    }
+
+    public OutputOp getOp() {
+        return op;
+    }
+
+    public Expr getExpr() {
+        return expr;
+    }
+
+    @Override
+    public void execute() {
+        String str;
+        if (expr == null)
+            str = "";
+        else if (expr.isIntegral())
+            str = Integer.toString(expr.intValue());
+        else
+            str = expr.expr().toString();
+
+        if (op == OutputOp.PutsOp)
+            System.out.println(str);
+        else
+            System.out.print(str);
+
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.outputWritten(str, op == OutputOp.PutsOp);
+    }
+
+}
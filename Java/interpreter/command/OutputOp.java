@@ -1,5 +1,6 @@
 package interpreter.command;
 
-public class OutputOp {
-
+public enum OutputOp {
+    PutsOp,
+    PrintOp
 }
@@ -0,0 +1,162 @@
+package interpreter.command;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import interpreter.expr.BoolExpr;
+import interpreter.expr.ConstExpr;
+import interpreter.expr.Expr;
+import interpreter.expr.RelOp;
+import interpreter.expr.SingleBoolExpr;
+import interpreter.expr.Variable;
+import interpreter.value.IntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+// Tabela de saltos para if/elsif que compara uma variável com constantes
+// inteiras ou strings. A variável é lida uma vez e o ramo sai de um índice,
+// se as chaves inteiras forem densas, ou de um hash. Para inteiros e strings
+// == e === são igualdade; com outro valor na variável (um arranjo, em que
+// === testa pertinência) roda a cadeia original.
+public class SwitchCommand extends Command {
+
+    // Abaixo disso, comparar em sequência é tão rápido quanto a tabela.
+    private static final int MIN_ARMS = 4;
+
+    private Variable subject;
+    private IfCommand chain;
+    private Command elseCmds;
+
+    private Command[] dense;
+    private int min;
+    private Map<Value<?>, Command> table;
+
+    private SwitchCommand(int line, Variable subject, IfCommand chain, Command elseCmds) {
+        super(line);
+        this.subject = subject;
+        this.chain = chain;
+        this.elseCmds = elseCmds;
+    }
+
+    // A cadeia original, com os mesmos comandos nos braços.
+    public IfCommand getChain() {
+        return chain;
+    }
+
+    // Devolve a tabela equivalente à cadeia, ou a própria cadeia quando ela
+    // não tem a forma esperada.
+    public static Command lower(IfCommand chain) {
+        List<Value<?>> keys = new ArrayList<Value<?>>();
+        List<Command> arms = new ArrayList<Command>();
+        String name = null;
+        int line = chain.getLine();
+
+        Command cmd = chain;
+        while (cmd instanceof IfCommand) {
+            IfCommand arm = (IfCommand) cmd;
+            BoolExpr cond = arm.getCond();
+            if (!(cond instanceof SingleBoolExpr))
+                return chain;
+
+            SingleBoolExpr sbe = (SingleBoolExpr) cond;
+            if (sbe.getOp() != RelOp.EqualsOp && sbe.getOp() != RelOp.ContainsOp)
+                return chain;
+
+            Variable var = variable(sbe.getLeft(), sbe.getRight());
+            Value<?> key = constant(sbe.getLeft(), sbe.getRight());
+            if (var == null || key == null)
+                return chain;
+
+            if (name == null)
+                name = var.getName();
+            else if (!name.equals(var.getName()))
+                return chain;
+
+            keys.add(key);
+            arms.add(arm.getThen());
+            cmd = arm.getElse();
+        }
+
+        if (keys.size() < MIN_ARMS)
+            return chain;
+
+        SwitchCommand sw = new SwitchCommand(line, new Variable(line, name), chain, cmd);
+        sw.build(keys, arms);
+        return sw;
+    }
+
+    private static Variable variable(Expr e1, Expr e2) {
+        if (e1 instanceof Variable && e2 instanceof ConstExpr)
+            return (Variable) e1;
+
+        if (e2 instanceof Variable && e1 instanceof ConstExpr)
+            return (Variable) e2;
+
+        return null;
+    }
+
+    private static Value<?> constant(Expr e1, Expr e2) {
+        Expr c = e1 instanceof ConstExpr ? e1 : e2;
+        if (!(c instanceof ConstExpr))
+            return null;
+
+        Value<?> v = ((ConstExpr) c).getValue();
+        return v instanceof IntegerValue || v instanceof StringValue ? v : null;
+    }
+
+    private void build(List<Value<?>> keys, List<Command> arms) {
+        boolean ints = true;
+        long lo = Long.MAX_VALUE;
+        long hi = Long.MIN_VALUE;
+        for (Value<?> k : keys) {
+            if (k instanceof IntegerValue) {
+                int n = ((IntegerValue) k).value();
+                lo = Math.min(lo, n);
+                hi = Math.max(hi, n);
+            } else {
+                ints = false;
+            }
+        }
+
+        // Chaves repetidas: vale o primeiro braço, como na cadeia.
+        if (ints && hi - lo + 1 <= 2L * keys.size()) {
+            min = (int) lo;
+            dense = new Command[(int) (hi - lo + 1)];
+            for (int i = keys.size() - 1; i >= 0; i--)
+                dense[((IntegerValue) keys.get(i)).value() - min] = arms.get(i);
+        } else {
+            table = new HashMap<Value<?>, Command>(keys.size() * 2);
+            for (int i = keys.size() - 1; i >= 0; i--)
+                table.put(keys.get(i), arms.get(i));
+        }
+    }
+
+    @Override
+    public void execute() {
+        Command arm;
+        if (subject.isIntegral()) {
+            if (dense != null) {
+                long idx = (long) subject.intValue() - min;
+                arm = idx >= 0 && idx < dense.length ? dense[(int) idx] : null;
+            } else {
+                arm = table.get(subject.expr());
+            }
+        } else {
+            Value<?> v = subject.expr();
+            if (v instanceof StringValue) {
+                arm = table != null ? table.get(v) : null;
+            } else {
+                chain.execute();
+                return;
+            }
+        }
+
+        if (arm != null)
+            arm.execute();
+        else if (elseCmds != null)
+            elseCmds.execute();
+    }
+
+}
@@ -1,5 +1,42 @@
 package interpreter.command;
 
-public class UnlessCommand {
+import interpreter.expr.BoolExpr;
+
+public class UnlessCommand extends Command {
+
+    private BoolExpr cond;
+    private Command thenCmds;
+    private Command elseCmds;
+
+    public UnlessCommand(int line, BoolExpr cond, Command thenCmds) {
+        this(line, cond, thenCmds, null);
+    }
+
+    public UnlessCommand(int line, BoolExpr cond, Command thenCmds, Command elseCmds) {
+        super(line);
+        this.cond = cond;
+        this.thenCmds = thenCmds;
+        this.elseCmds = elseCmds;
+    }
+
+    public BoolExpr getCond() {
+        return cond;
+    }
+
+    public Command getThen() {
+        return thenCmds;
+    }
+
+    public Command getElse() {
+        return elseCmds;
+    }
+
+    @Override
+    public void execute() {
+        if (!cond.expr())
+            thenCmds.execute();
+        else if (elseCmds != null)
+            elseCmds.execute();
+    }
 
 }
@@ -1,5 +1,37 @@
 package interpreter.command;
 
-public class WhileCommand {
+import interpreter.expr.BoolExpr;
+import interpreter.util.Governor;
+
+public class WhileCommand extends Command {
+
+    private BoolExpr cond;
+    private Command cmds;
+    private int weight;
+
+    public WhileCommand(int line, BoolExpr cond, Command cmds) {
+        super(line);
+        this.cond = cond;
+        this.cmds = cmds;
+        this.weight = Governor.weight(cmds);
+    }
+
+    public BoolExpr getCond() {
+        return cond;
+    }
+
+    public Command getCommands() {
+        return cmds;
+    }
+
+    @Override
+    public void execute() {
+        while (cond.expr()) {
+            cmds.execute();
+
+            if (Governor.enabled)
+                Governor.backEdge(super.getLine(), weight);
+        }
+    }
 
 }
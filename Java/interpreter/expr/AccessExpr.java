@@ -1,5 +1,140 @@
 package interpreter.expr;
 
-public class AccessExpr {
+import interpreter.util.InterpreterException;
+import interpreter.value.ArrayValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+public class AccessExpr extends SetExpr {
+
+    private Expr base;
+    private Expr index;
+    // Resultado de isIntegral(), devolvido por intValue().
+    private int cached;
+
+    public AccessExpr(int line, Expr base, Expr index) {
+        super(line);
+        this.base = base;
+        this.index = index;
+    }
+
+    public Expr getBase() {
+        return base;
+    }
+
+    public Expr getIndex() {
+        return index;
+    }
+
+    @Override
+    public Value<?> expr() {
+        Value<?> b = base.expr();
+        return load(super.getLine(), b, index());
+    }
+
+    // As três seguintes também são chamadas pelo código gerado por
+    // mrbi --compile.
+    public static Value<?> load(int line, Value<?> b, int idx) {
+        if (b instanceof ArrayValue) {
+            ArrayValue av = (ArrayValue) b;
+            if (idx < 0)
+                idx += av.size();
+
+            if (idx < 0 || idx >= av.size())
+                return new StringValue("");
+
+            return av.get(idx);
+        } else if (b instanceof StringValue) {
+            String s = ((StringValue) b).value();
+            if (idx < 0)
+                idx += s.length();
+
+            if (idx < 0 || idx >= s.length())
+                return new StringValue("");
+
+            return new StringValue(s.substring(idx, idx + 1));
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    public static int index(int line, Value<?> i) {
+        if (!(i instanceof IntegerValue))
+            throw new InterpreterException(line);
+
+        return ((IntegerValue) i).value();
+    }
+
+    public static void store(int line, Value<?> b, int idx, Value<?> value) {
+        if (!(b instanceof ArrayValue))
+            throw new InterpreterException(line);
+
+        ArrayValue av = (ArrayValue) b;
+        if (idx < 0)
+            idx += av.size();
+
+        if (idx < 0)
+            throw new InterpreterException(line);
+
+        av.set(idx, value);
+    }
+
+    // Só a leitura de uma variável como base: avaliá-la duas vezes, quando
+    // o caminho genérico assume, não tem efeitos colaterais.
+    @Override
+    public boolean isIntegral() {
+        if (!(base instanceof Variable) || !index.isIntegral())
+            return false;
+
+        Value<?> b = base.expr();
+        if (!(b instanceof ArrayValue) || !((ArrayValue) b).isPacked())
+            return false;
+
+        ArrayValue av = (ArrayValue) b;
+        int idx = index.intValue();
+        if (idx < 0)
+            idx += av.size();
+
+        if (idx < 0 || idx >= av.size())
+            return false;
+
+        cached = av.getInt(idx);
+        return true;
+    }
+
+    @Override
+    public int intValue() {
+        return cached;
+    }
+
+    private int index() {
+        if (index.isIntegral())
+            return index.intValue();
+
+        return index(super.getLine(), index.expr());
+    }
+
+    @Override
+    public void setValue(Value<?> value) {
+        Value<?> b = base.expr();
+        store(super.getLine(), b, index(), value);
+    }
+
+    public void setInt(int value) {
+        Value<?> b = base.expr();
+        int idx = index();
+        if (!(b instanceof ArrayValue))
+            throw new InterpreterException(super.getLine());
+
+        ArrayValue av = (ArrayValue) b;
+        if (idx < 0)
+            idx += av.size();
+
+        if (idx < 0)
+            throw new InterpreterException(super.getLine());
+
+        av.setInt(idx, value);
+    }
 
 }
@@ -1,5 +1,31 @@
 package interpreter.expr;
 
-public class ArrayExpr {
+import java.util.List;
+import java.util.Vector;
+
+import interpreter.value.ArrayValue;
+import interpreter.value.Value;
+
+public class ArrayExpr extends Expr {
+
+    private List<Expr> exprs;
+
+    public ArrayExpr(int line, List<Expr> exprs) {
+        super(line);
+        this.exprs = exprs;
+    }
+
+    public List<Expr> getExprs() {
+        return exprs;
+    }
+
+    @Override
+    public Value<?> expr() {
+        Vector<Value<?>> v = new Vector<Value<?>>(exprs.size());
+        for (Expr e : exprs)
+            v.add(e.expr());
+
+        return new ArrayValue(v);
+    }
 
 }
@@ -1,5 +1,272 @@
 package interpreter.expr;
 
-public class BinaryExpr {
+import java.math.BigInteger;
+
+import interpreter.util.InterpreterException;
+import interpreter.value.ArrayValue;
+import interpreter.value.BigIntegerValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+public class BinaryExpr extends Expr {
+
+    private Expr left;
+    private BinaryOp op;
+    private Expr right;
+    // Resultado de isIntegral(), devolvido por intValue().
+    private int cached;
+
+    public BinaryExpr(int line, Expr left, BinaryOp op, Expr right) {
+        super(line);
+        this.left = left;
+        this.op = op;
+        this.right = right;
+    }
+
+    public Expr getLeft() {
+        return left;
+    }
+
+    public BinaryOp getOp() {
+        return op;
+    }
+
+    public Expr getRight() {
+        return right;
+    }
+
+    @Override
+    public Value<?> expr() {
+        if (isIntegral())
+            return new IntegerValue(intValue());
+
+        Value<?> v1 = left.expr();
+        Value<?> v2 = right.expr();
+        return apply(super.getLine(), op, v1, v2);
+    }
+
+    // Semântica do operador sobre valores já avaliados; também chamada pelo
+    // código gerado por mrbi --compile.
+    public static Value<?> apply(int line, BinaryOp op, Value<?> v1, Value<?> v2) {
+        switch (op) {
+            case RangeWithOp:
+                return rangeWithOp(line, v1, v2);
+            case RangeWithoutOp:
+                return rangeWithoutOp(line, v1, v2);
+            case AddOp:
+                return addOp(line, v1, v2);
+            case SubOp:
+                return subOp(line, v1, v2);
+            case MulOp:
+                return mulOp(line, v1, v2);
+            case DivOp:
+                return divOp(line, v1, v2);
+            case ModOp:
+                return modOp(line, v1, v2);
+            case ExpOp:
+            default:
+                return expOp(line, v1, v2);
+        }
+    }
+
+    // Calcula em long; se o resultado não couber em int, devolve false e a
+    // avaliação genérica promove para BigIntegerValue.
+    @Override
+    public boolean isIntegral() {
+        if (op == BinaryOp.RangeWithOp || op == BinaryOp.RangeWithoutOp
+                || !left.isIntegral() || !right.isIntegral())
+            return false;
+
+        long n1 = left.intValue();
+        long n2 = right.intValue();
+        long r;
+
+        switch (op) {
+            case AddOp:
+                r = n1 + n2;
+                break;
+            case SubOp:
+                r = n1 - n2;
+                break;
+            case MulOp:
+                r = n1 * n2;
+                break;
+            case DivOp:
+                if (n2 == 0)
+                    throw new InterpreterException(super.getLine());
+                r = n1 / n2;
+                break;
+            case ModOp:
+                if (n2 == 0)
+                    throw new InterpreterException(super.getLine());
+                r = n1 % n2;
+                break;
+            case ExpOp:
+            default:
+                r = n2 < 0 ? (int) Math.pow(n1, n2) : pow(n1, (int) n2);
+                break;
+        }
+
+        if (r != (int) r)
+            return false;
+
+        cached = (int) r;
+        return true;
+    }
+
+    @Override
+    public int intValue() {
+        return cached;
+    }
+
+    private static Value<?> rangeWithOp(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            int from = ((IntegerValue) v1).value();
+            int to = ((IntegerValue) v2).value();
+            return range(from, to + 1);
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static Value<?> rangeWithoutOp(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            int from = ((IntegerValue) v1).value();
+            int to = ((IntegerValue) v2).value();
+            return range(from, to);
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static Value<?> range(int from, int to) {
+        return ArrayValue.range(from, Math.max(to - from, 0));
+    }
+
+    private static Value<?> addOp(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            long n1 = ((IntegerValue) v1).value();
+            long n2 = ((IntegerValue) v2).value();
+            return BigIntegerValue.valueOf(n1 + n2);
+        } else if (BigIntegerValue.isInteger(v1) && BigIntegerValue.isInteger(v2)) {
+            return BigIntegerValue.valueOf(big(v1).add(big(v2)));
+        } else if (v1 instanceof ArrayValue && v2 instanceof ArrayValue) {
+            return ((ArrayValue) v1).concat((ArrayValue) v2);
+        } else if (v1 instanceof StringValue || v2 instanceof StringValue) {
+            return new StringValue(v1.toString() + v2.toString());
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static Value<?> subOp(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            long n1 = ((IntegerValue) v1).value();
+            long n2 = ((IntegerValue) v2).value();
+            return BigIntegerValue.valueOf(n1 - n2);
+        } else if (BigIntegerValue.isInteger(v1) && BigIntegerValue.isInteger(v2)) {
+            return BigIntegerValue.valueOf(big(v1).subtract(big(v2)));
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static Value<?> mulOp(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            long n1 = ((IntegerValue) v1).value();
+            long n2 = ((IntegerValue) v2).value();
+            return BigIntegerValue.valueOf(n1 * n2);
+        } else if (BigIntegerValue.isInteger(v1) && BigIntegerValue.isInteger(v2)) {
+            return BigIntegerValue.valueOf(big(v1).multiply(big(v2)));
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    // Como em Java, a divisão trunca e o resto tem o sinal do dividendo.
+    private static Value<?> divOp(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            long n1 = ((IntegerValue) v1).value();
+            long n2 = ((IntegerValue) v2).value();
+            if (n2 == 0)
+                throw new InterpreterException(line);
+
+            return BigIntegerValue.valueOf(n1 / n2);
+        } else if (BigIntegerValue.isInteger(v1) && BigIntegerValue.isInteger(v2)) {
+            BigInteger n2 = big(v2);
+            if (n2.signum() == 0)
+                throw new InterpreterException(line);
+
+            return BigIntegerValue.valueOf(big(v1).divide(n2));
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static Value<?> modOp(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            long n1 = ((IntegerValue) v1).value();
+            long n2 = ((IntegerValue) v2).value();
+            if (n2 == 0)
+                throw new InterpreterException(line);
+
+            return BigIntegerValue.valueOf(n1 % n2);
+        } else if (BigIntegerValue.isInteger(v1) && BigIntegerValue.isInteger(v2)) {
+            BigInteger n2 = big(v2);
+            if (n2.signum() == 0)
+                throw new InterpreterException(line);
+
+            return BigIntegerValue.valueOf(big(v1).remainder(n2));
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static Value<?> expOp(int line, Value<?> v1, Value<?> v2) {
+        if (!BigIntegerValue.isInteger(v1) || !(v2 instanceof IntegerValue))
+            throw new InterpreterException(line);
+
+        int n2 = ((IntegerValue) v2).value();
+        if (v1 instanceof IntegerValue) {
+            int n1 = ((IntegerValue) v1).value();
+            // Expoente negativo: mantém o resultado truncado de antes.
+            if (n2 < 0)
+                return new IntegerValue((int) Math.pow(n1, n2));
+
+            long r = pow(n1, n2);
+            if (r != Long.MAX_VALUE)
+                return BigIntegerValue.valueOf(r);
+        } else if (n2 < 0) {
+            // |base| > 1: a fração trunca para zero.
+            return new IntegerValue(0);
+        }
+
+        return BigIntegerValue.valueOf(big(v1).pow(n2));
+    }
+
+    // Potência por quadrados. Se o resultado não couber em long, devolve
+    // Long.MAX_VALUE, que não é potência exata de nenhum inteiro.
+    private static long pow(long base, int exp) {
+        long result = 1;
+        try {
+            while (exp > 0) {
+                if ((exp & 1) != 0)
+                    result = Math.multiplyExact(result, base);
+
+                exp >>= 1;
+                if (exp > 0)
+                    base = Math.multiplyExact(base, base);
+            }
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+
+        return result;
+    }
+
+    private static BigInteger big(Value<?> v) {
+        return BigIntegerValue.toBigInteger(v);
+    }
 
 }
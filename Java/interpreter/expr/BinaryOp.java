@@ -1,5 +1,12 @@
 package interpreter.expr;
 
-public class BinaryOp {
-
+public enum BinaryOp {
+    RangeWithOp,
+    RangeWithoutOp,
+    AddOp,
+    SubOp,
+    MulOp,
+    DivOp,
+    ModOp,
+    ExpOp
 }
@@ -1,5 +1,17 @@
 package interpreter.expr;
 
-public class BoolExpr {
+public abstract class BoolExpr {
+
+    private int line;
+
+    protected BoolExpr(int line) {
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public abstract boolean expr();
 
 }
@@ -1,5 +1,6 @@
 package interpreter.expr;
 
-public class BoolOp {
-
+public enum BoolOp {
+    And,
+    Or
 }
@@ -1,5 +1,203 @@
 package interpreter.expr;
 
-public class CompositeBoolExpr {
+import java.util.ArrayList;
+import java.util.List;
+
+// and/or com n cláusulas: as cadeias do mesmo operador, que o analisador
+// monta à direita, viram um só nó avaliado num laço até a primeira cláusula
+// que decide. Cláusulas que não falham nem têm efeitos (isTotal) são
+// reordenadas de tempos em tempos, as mais baratas e decisivas primeiro.
+// Uma que pode falhar nunca é movida, nem outra passa por ela: mudaria o
+// erro informado.
+public class CompositeBoolExpr extends BoolExpr {
+
+    private static final int REORDER_INTERVAL = 1024;
+
+    private BoolOp op;
+    private BoolExpr[] clauses;
+
+    // Só existem quando há ao menos dois vizinhos totais para reordenar.
+    private boolean[] total;
+    private int[] cost;
+    private long[] evaluated;
+    private long[] decided;
+    private int count;
+
+    public CompositeBoolExpr(int line, BoolExpr left, BoolOp op, BoolExpr right) {
+        super(line);
+        this.op = op;
+
+        List<BoolExpr> list = new ArrayList<BoolExpr>();
+        flatten(left, list);
+        flatten(right, list);
+        this.clauses = list.toArray(new BoolExpr[list.size()]);
+
+        boolean[] t = new boolean[clauses.length];
+        boolean reorderable = false;
+        for (int i = 0; i < clauses.length; i++) {
+            t[i] = isTotal(clauses[i]);
+            if (i > 0 && t[i] && t[i - 1])
+                reorderable = true;
+        }
+
+        if (reorderable) {
+            total = t;
+            cost = new int[clauses.length];
+            for (int i = 0; i < clauses.length; i++)
+                cost[i] = cost(clauses[i]);
+
+            evaluated = new long[clauses.length];
+            decided = new long[clauses.length];
+        }
+    }
+
+    private void flatten(BoolExpr e, List<BoolExpr> list) {
+        if (e instanceof CompositeBoolExpr && ((CompositeBoolExpr) e).op == op) {
+            for (BoolExpr c : ((CompositeBoolExpr) e).clauses)
+                list.add(c);
+        } else {
+            list.add(e);
+        }
+    }
+
+    public BoolOp getOp() {
+        return op;
+    }
+
+    public BoolExpr[] getClauses() {
+        return clauses;
+    }
+
+    @Override
+    public boolean expr() {
+        // "or" termina no primeiro verdadeiro, "and" no primeiro falso.
+        boolean decisive = op == BoolOp.Or;
+        BoolExpr[] c = clauses;
+
+        if (evaluated == null) {
+            for (int i = 0; i < c.length; i++) {
+                if (c[i].expr() == decisive)
+                    return decisive;
+            }
+            return !decisive;
+        }
+
+        boolean result = !decisive;
+        for (int i = 0; i < c.length; i++) {
+            evaluated[i]++;
+            if (c[i].expr() == decisive) {
+                decided[i]++;
+                result = decisive;
+                break;
+            }
+        }
+
+        if (++count == REORDER_INTERVAL) {
+            count = 0;
+            reorder();
+        }
+
+        return result;
+    }
+
+    // Ordena cada sequência de cláusulas totais pela razão entre a chance de
+    // decidir e o custo, que minimiza o custo esperado da avaliação.
+    private void reorder() {
+        int n = clauses.length;
+        int i = 0;
+        while (i < n) {
+            if (!total[i]) {
+                i++;
+                continue;
+            }
+
+            int end = i;
+            while (end < n && total[end])
+                end++;
+
+            // Inserção: as sequências são curtas.
+            for (int j = i + 1; j < end; j++) {
+                for (int k = j; k > i && score(k) > score(k - 1); k--)
+                    exchange(k, k - 1);
+            }
+
+            i = end;
+        }
+
+        // Esquece aos poucos o passado, para acompanhar mudanças de fase.
+        for (int k = 0; k < n; k++) {
+            evaluated[k] >>= 1;
+            decided[k] >>= 1;
+        }
+    }
+
+    private double score(int k) {
+        if (evaluated[k] == 0)
+            return 0.0;
+
+        return (double) decided[k] / evaluated[k] / cost[k];
+    }
+
+    private void exchange(int a, int b) {
+        BoolExpr c = clauses[a];
+        clauses[a] = clauses[b];
+        clauses[b] = c;
+
+        int t = cost[a];
+        cost[a] = cost[b];
+        cost[b] = t;
+
+        long e = evaluated[a];
+        evaluated[a] = evaluated[b];
+        evaluated[b] = e;
+
+        long d = decided[a];
+        decided[a] = decided[b];
+        decided[b] = d;
+    }
+
+    // Uma cláusula total nunca lança erro e não tem efeitos colaterais:
+    // comparações de igualdade entre variáveis e constantes.
+    private static boolean isTotal(BoolExpr e) {
+        if (e instanceof NotBoolExpr)
+            return isTotal(((NotBoolExpr) e).getExpr());
+
+        if (e instanceof CompositeBoolExpr) {
+            for (BoolExpr c : ((CompositeBoolExpr) e).clauses) {
+                if (!isTotal(c))
+                    return false;
+            }
+            return true;
+        }
+
+        if (e instanceof SingleBoolExpr) {
+            SingleBoolExpr s = (SingleBoolExpr) e;
+            RelOp op = s.getOp();
+            return (op == RelOp.EqualsOp || op == RelOp.NotEqualsOp || op == RelOp.ContainsOp)
+                    && isTotal(s.getLeft()) && isTotal(s.getRight());
+        }
+
+        return false;
+    }
+
+    private static boolean isTotal(Expr e) {
+        return e instanceof Variable || e instanceof ConstExpr;
+    }
+
+    private static int cost(BoolExpr e) {
+        if (e instanceof NotBoolExpr)
+            return 1 + cost(((NotBoolExpr) e).getExpr());
+
+        if (e instanceof CompositeBoolExpr) {
+            int c = 0;
+            for (BoolExpr b : ((CompositeBoolExpr) e).clauses)
+                c += cost(b);
+            return c;
+        }
+
+        // Variável custa uma busca na memória; constante, nada.
+        SingleBoolExpr s = (SingleBoolExpr) e;
+        return 1 + (s.getLeft() instanceof Variable ? 2 : 0) + (s.getRight() instanceof Variable ? 2 : 0);
+    }
 
 }
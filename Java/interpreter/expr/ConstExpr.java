@@ -1,5 +1,40 @@
 package interpreter.expr;
 
-public class ConstExpr {
+import interpreter.value.IntegerValue;
+import interpreter.value.Value;
+
+public class ConstExpr extends Expr {
+
+    private Value<?> value;
+    private boolean integral;
+    private int n;
+
+    public ConstExpr(int line, Value<?> value) {
+        super(line);
+        this.value = value;
+        if (value instanceof IntegerValue) {
+            this.integral = true;
+            this.n = ((IntegerValue) value).value();
+        }
+    }
+
+    public Value<?> getValue() {
+        return value;
+    }
+
+    @Override
+    public Value<?> expr() {
+        return value;
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return integral;
+    }
+
+    @Override
+    public int intValue() {
+        return n;
+    }
 
 }
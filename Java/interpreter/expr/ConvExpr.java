@@ -1,5 +1,66 @@
 package interpreter.expr;
 
-public class ConvExpr {
+import interpreter.util.InterpreterException;
+import interpreter.value.BigIntegerValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.Value;
+
+public class ConvExpr extends Expr {
+
+    private ConvOp op;
+    private Expr expr;
+    private int cached;
+
+    public ConvExpr(int line, ConvOp op, Expr expr) {
+        super(line);
+        this.op = op;
+        this.expr = expr;
+    }
+
+    public ConvOp getOp() {
+        return op;
+    }
+
+    public Expr getExpr() {
+        return expr;
+    }
+
+    @Override
+    public Value<?> expr() {
+        return apply(super.getLine(), op, expr.expr());
+    }
+
+    // Também chamada pelo código gerado por mrbi --compile.
+    public static Value<?> apply(int line, ConvOp op, Value<?> v) {
+        if (!BigIntegerValue.isInteger(v))
+            throw new InterpreterException(line);
+
+        if (op == ConvOp.MinusOp)
+            return BigIntegerValue.valueOf(BigIntegerValue.toBigInteger(v).negate());
+
+        return v;
+    }
+
+    @Override
+    public boolean isIntegral() {
+        if (!expr.isIntegral())
+            return false;
+
+        int n = expr.intValue();
+        if (op == ConvOp.MinusOp) {
+            // -(-2147483648) não cabe em int.
+            if (n == Integer.MIN_VALUE)
+                return false;
+            n = -n;
+        }
+
+        cached = n;
+        return true;
+    }
+
+    @Override
+    public int intValue() {
+        return cached;
+    }
 
 }
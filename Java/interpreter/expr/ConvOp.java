@@ -1,5 +1,6 @@
 package interpreter.expr;
 
-public class ConvOp {
-
+public enum ConvOp {
+    PlusOp,
+    MinusOp
 }
@@ -1,5 +1,30 @@
 package interpreter.expr;
 
-public class Expr {
+import interpreter.value.Value;
+
+public abstract class Expr {
+
+    private int line;
+
+    protected Expr(int line) {
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public abstract Value<?> expr();
+
+    // Avaliação sem criar IntegerValue. intValue() só pode ser chamado logo
+    // depois de isIntegral() devolver true. Expressões compostas já calculam
+    // o valor em isIntegral(), e devolvem false se ele não couber em int.
+    public boolean isIntegral() {
+        return false;
+    }
+
+    public int intValue() {
+        throw new UnsupportedOperationException();
+    }
 
 }
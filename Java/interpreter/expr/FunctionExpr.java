@@ -1,5 +1,79 @@
 package interpreter.expr;
 
-public class FunctionExpr {
+import java.math.BigInteger;
+
+import interpreter.util.InterpreterException;
+import interpreter.value.ArrayValue;
+import interpreter.value.BigIntegerValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+public class FunctionExpr extends Expr {
+
+    private FunctionOp op;
+    private Expr expr;
+
+    public FunctionExpr(int line, FunctionOp op, Expr expr) {
+        super(line);
+        this.op = op;
+        this.expr = expr;
+    }
+
+    public FunctionOp getOp() {
+        return op;
+    }
+
+    public Expr getExpr() {
+        return expr;
+    }
+
+    @Override
+    public Value<?> expr() {
+        return apply(super.getLine(), op, expr.expr());
+    }
+
+    // Também chamada pelo código gerado por mrbi --compile.
+    public static Value<?> apply(int line, FunctionOp op, Value<?> v) {
+        switch (op) {
+            case LengthOp:
+                return lengthOp(line, v);
+            case ToIntOp:
+                return toIntOp(line, v);
+            case ToStringOp:
+            default:
+                return toStringOp(v);
+        }
+    }
+
+    private static Value<?> lengthOp(int line, Value<?> v) {
+        if (v instanceof ArrayValue)
+            return new IntegerValue(((ArrayValue) v).size());
+        else if (v instanceof StringValue)
+            return new IntegerValue(((StringValue) v).value().length());
+        else
+            throw new InterpreterException(line);
+    }
+
+    private static Value<?> toIntOp(int line, Value<?> v) {
+        if (BigIntegerValue.isInteger(v)) {
+            return v;
+        } else if (v instanceof StringValue) {
+            try {
+                return BigIntegerValue.valueOf(new BigInteger(((StringValue) v).value().trim()));
+            } catch (NumberFormatException e) {
+                return new IntegerValue(0);
+            }
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static Value<?> toStringOp(Value<?> v) {
+        if (v instanceof StringValue)
+            return v;
+
+        return new StringValue(v.toString());
+    }
 
 }
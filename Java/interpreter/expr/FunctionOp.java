@@ -1,5 +1,7 @@
 package interpreter.expr;
 
-public class FunctionOp {
-
+public enum FunctionOp {
+    LengthOp,
+    ToIntOp,
+    ToStringOp
 }
@@ -1,5 +1,59 @@
 package interpreter.expr;
 
-public class InputExpr {
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import interpreter.util.RandomSource;
+import interpreter.value.IntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+public class InputExpr extends Expr {
+
+    // Criado no primeiro uso: a maioria dos scripts nunca lê a entrada.
+    private static BufferedReader in;
+
+    private InputOp op;
+
+    public InputExpr(int line, InputOp op) {
+        super(line);
+        this.op = op;
+    }
+
+    public InputOp getOp() {
+        return op;
+    }
+
+    @Override
+    public Value<?> expr() {
+        return read(op);
+    }
+
+    // Também chamada pelo código gerado por mrbi --compile.
+    public static Value<?> read(InputOp op) {
+        if (op == InputOp.GetsOp) {
+            return new StringValue(readLine());
+        } else {
+            return new IntegerValue(RandomSource.nextInt());
+        }
+    }
+
+    // Descarta o leitor da entrada, para quando System.in for trocado.
+    public static void reset() {
+        in = null;
+    }
+
+    private static String readLine() {
+        if (in == null)
+            in = new BufferedReader(new InputStreamReader(System.in));
+
+        try {
+            String str = in.readLine();
+            return str == null ? "" : str;
+        } catch (IOException e) {
+            return "";
+        }
+    }
 
 }
@@ -1,5 +1,6 @@
 package interpreter.expr;
 
-public class InputOp {
-
+public enum InputOp {
+    GetsOp,
+    RandOp
 }
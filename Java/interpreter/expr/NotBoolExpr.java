@@ -1,5 +1,21 @@
 package interpreter.expr;
 
-public class NotBoolExpr {
+public class NotBoolExpr extends BoolExpr {
+
+    private BoolExpr expr;
+
+    public NotBoolExpr(int line, BoolExpr expr) {
+        super(line);
+        this.expr = expr;
+    }
+
+    public BoolExpr getExpr() {
+        return expr;
+    }
+
+    @Override
+    public boolean expr() {
+        return !expr.expr();
+    }
 
 }
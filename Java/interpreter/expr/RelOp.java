@@ -1,5 +1,11 @@
 package interpreter.expr;
 
-public class RelOp {
-
+public enum RelOp {
+    EqualsOp,
+    NotEqualsOp,
+    LowerThanOp,
+    LowerEqualOp,
+    GreaterThanOp,
+    GreaterEqualOp,
+    ContainsOp
 }
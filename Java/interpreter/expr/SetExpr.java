@@ -1,5 +1,13 @@
 package interpreter.expr;
 
-public class SetExpr {
+import interpreter.value.Value;
+
+public abstract class SetExpr extends Expr {
+
+    protected SetExpr(int line) {
+        super(line);
+    }
+
+    public abstract void setValue(Value<?> value);
 
 }
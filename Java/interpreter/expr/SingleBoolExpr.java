@@ -1,5 +1,106 @@
 package interpreter.expr;
 
-public class SingleBoolExpr {
+import interpreter.util.InterpreterException;
+import interpreter.value.ArrayValue;
+import interpreter.value.BigIntegerValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.Value;
+
+public class SingleBoolExpr extends BoolExpr {
+
+    private Expr left;
+    private RelOp op;
+    private Expr right;
+
+    public SingleBoolExpr(int line, Expr left, RelOp op, Expr right) {
+        super(line);
+        this.left = left;
+        this.op = op;
+        this.right = right;
+    }
+
+    public Expr getLeft() {
+        return left;
+    }
+
+    public RelOp getOp() {
+        return op;
+    }
+
+    public Expr getRight() {
+        return right;
+    }
+
+    @Override
+    public boolean expr() {
+        if (left.isIntegral() && right.isIntegral())
+            return compare(left.intValue(), right.intValue());
+
+        Value<?> v1 = left.expr();
+        Value<?> v2 = right.expr();
+        return test(super.getLine(), op, v1, v2);
+    }
+
+    // Semântica da comparação sobre valores já avaliados; também chamada
+    // pelo código gerado por mrbi --compile.
+    public static boolean test(int line, RelOp op, Value<?> v1, Value<?> v2) {
+        switch (op) {
+            case EqualsOp:
+                return v1.equals(v2);
+            case NotEqualsOp:
+                return !v1.equals(v2);
+            case LowerThanOp:
+                return compare(line, v1, v2) < 0;
+            case LowerEqualOp:
+                return compare(line, v1, v2) <= 0;
+            case GreaterThanOp:
+                return compare(line, v1, v2) > 0;
+            case GreaterEqualOp:
+                return compare(line, v1, v2) >= 0;
+            case ContainsOp:
+            default:
+                return containsOp(v1, v2);
+        }
+    }
+
+    // Entre dois inteiros, === e == coincidem.
+    protected boolean compare(int n1, int n2) {
+        switch (op) {
+            case EqualsOp:
+            case ContainsOp:
+                return n1 == n2;
+            case NotEqualsOp:
+                return n1 != n2;
+            case LowerThanOp:
+                return n1 < n2;
+            case LowerEqualOp:
+                return n1 <= n2;
+            case GreaterThanOp:
+                return n1 > n2;
+            case GreaterEqualOp:
+            default:
+                return n1 >= n2;
+        }
+    }
+
+    private static int compare(int line, Value<?> v1, Value<?> v2) {
+        if (v1 instanceof IntegerValue && v2 instanceof IntegerValue) {
+            int n1 = ((IntegerValue) v1).value();
+            int n2 = ((IntegerValue) v2).value();
+            return Integer.compare(n1, n2);
+        } else if (BigIntegerValue.isInteger(v1) && BigIntegerValue.isInteger(v2)) {
+            return BigIntegerValue.toBigInteger(v1).compareTo(BigIntegerValue.toBigInteger(v2));
+        } else {
+            throw new InterpreterException(line);
+        }
+    }
+
+    private static boolean containsOp(Value<?> v1, Value<?> v2) {
+        // Como em Ruby, (a..b) === x verifica se x pertence ao arranjo.
+        if (v1 instanceof ArrayValue)
+            return ((ArrayValue) v1).contains(v2);
+        else
+            return v1.equals(v2);
+    }
 
 }
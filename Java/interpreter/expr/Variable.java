@@ -1,5 +1,49 @@
 package interpreter.expr;
 
-public class Variable {
+import interpreter.util.Memory;
+import interpreter.value.Value;
+
+public class Variable extends SetExpr {
+
+    private String name;
+    private int slot;
+
+    public Variable(int line, String name) {
+        super(line);
+        this.name = name;
+        this.slot = Memory.slot(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    @Override
+    public Value<?> expr() {
+        return Memory.read(slot);
+    }
+
+    @Override
+    public boolean isIntegral() {
+        return Memory.isInteger(slot);
+    }
+
+    @Override
+    public int intValue() {
+        return Memory.readInt(slot);
+    }
+
+    @Override
+    public void setValue(Value<?> value) {
+        Memory.write(slot, value);
+    }
+
+    public void setInt(int value) {
+        Memory.writeInt(slot, value);
+    }
 
 }
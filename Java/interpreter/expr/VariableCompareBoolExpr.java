@@ -0,0 +1,43 @@
+package interpreter.expr;
+
+import interpreter.util.Memory;
+import interpreter.value.IntegerValue;
+
+// Comparação fundida de uma variável com outra ou com um inteiro
+// constante. Dois inteiros são comparados direto; o resto vai para
+// SingleBoolExpr.
+public class VariableCompareBoolExpr extends SingleBoolExpr {
+
+    private int slot;
+    // other < 0: compara com a constante.
+    private int other = -1;
+    private int constant;
+
+    public VariableCompareBoolExpr(int line, Variable left, RelOp op, Expr right) {
+        super(line, left, op, right);
+        this.slot = left.getSlot();
+        if (right instanceof Variable)
+            this.other = ((Variable) right).getSlot();
+        else
+            this.constant = ((IntegerValue) ((ConstExpr) right).getValue()).value();
+    }
+
+    @Override
+    public boolean expr() {
+        if (!Memory.isInteger(slot))
+            return super.expr();
+
+        int n2;
+        if (other < 0) {
+            n2 = constant;
+        } else {
+            if (!Memory.isInteger(other))
+                return super.expr();
+
+            n2 = Memory.readInt(other);
+        }
+
+        return compare(Memory.readInt(slot), n2);
+    }
+
+}
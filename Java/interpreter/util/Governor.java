@@ -0,0 +1,105 @@
+package interpreter.util;
+
+import interpreter.command.BlocksCommand;
+import interpreter.command.Command;
+
+// Limites para scripts não confiáveis: comandos executados, elementos de
+// arranjo e caracteres de string alocados, e um prazo.
+//
+// O limite de alocação é acumulado no programa todo: nada é devolvido quando
+// um valor é sobrescrito, pois strings não têm contagem de referências.
+//
+// Os comandos são cobrados nos retornos dos laços. O prazo é consultado a
+// cada POLL_WINDOW, mais ou menos: o número de retornos entre consultas
+// começa em um e se ajusta à duração das iterações, até POLL_INTERVAL.
+public class Governor {
+
+    private static final int POLL_INTERVAL = 1024;
+    private static final long POLL_WINDOW = 1_000_000L;
+
+    public static boolean enabled = false;
+
+    private static long maxSteps = Long.MAX_VALUE;
+    private static long steps = 0;
+
+    // Total alocado desde o início, nunca decrementado.
+    private static long maxCells = Long.MAX_VALUE;
+    private static long cells = 0;
+
+    private static long timeout = 0;
+    private static long deadline = Long.MAX_VALUE;
+    private static int interval = 1;
+    private static int countdown = 1;
+    private static long lastPoll;
+
+    public static void setMaxSteps(long max) {
+        maxSteps = max;
+        enabled = true;
+    }
+
+    public static void setMaxCells(long max) {
+        maxCells = max;
+        enabled = true;
+    }
+
+    public static void setTimeout(long millis) {
+        timeout = millis * 1_000_000L;
+        lastPoll = System.nanoTime();
+        deadline = lastPoll + timeout;
+        enabled = true;
+    }
+
+    // Zera os contadores e rearma o prazo, mantendo os limites; usado pelo
+    // daemon antes de cada script.
+    public static void restart() {
+        steps = 0;
+        cells = 0;
+        interval = countdown = 1;
+        lastPoll = System.nanoTime();
+        if (timeout > 0)
+            deadline = lastPoll + timeout;
+    }
+
+    // Custo de uma iteração de laço: os comandos do corpo e a condição.
+    public static int weight(Command body) {
+        if (body instanceof BlocksCommand)
+            return ((BlocksCommand) body).getCommands().size() + 1;
+
+        return 2;
+    }
+
+    public static void backEdge(int line, int weight) {
+        steps += weight;
+        if (steps > maxSteps)
+            throw new ResourceLimitException(line, "Limite de comandos excedido");
+
+        if (--countdown <= 0)
+            poll(line);
+    }
+
+    // Encolhe o intervalo na proporção do atraso quando a janela passou do
+    // previsto, e dobra quando sobrou tempo.
+    private static void poll(int line) {
+        long now = System.nanoTime();
+        if (now - deadline > 0)
+            throw new ResourceLimitException(line, "Tempo limite excedido");
+
+        long elapsed = now - lastPoll;
+        lastPoll = now;
+        if (elapsed > POLL_WINDOW)
+            interval = (int) Math.max(1, interval * POLL_WINDOW / elapsed);
+        else
+            interval = Math.min(POLL_INTERVAL, interval * 2);
+
+        countdown = interval;
+    }
+
+    // Chamado na criação de valores, que não conhecem sua linha; o
+    // BlocksCommand que estiver executando completa a linha da exceção.
+    public static void allocate(long n) {
+        cells += n;
+        if (cells > maxCells)
+            throw new ResourceLimitException(0, "Limite de alocação excedido");
+    }
+
+}
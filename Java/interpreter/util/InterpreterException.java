@@ -0,0 +1,24 @@
+package interpreter.util;
+
+public class InterpreterException extends RuntimeException {
+
+    private int line;
+
+    public InterpreterException(int line) {
+        this(line, "Operação inválida");
+    }
+
+    public InterpreterException(int line, String msg) {
+        super(msg);
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+}
@@ -1,27 +1,212 @@
 package interpreter.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import interpreter.value.ArrayValue;
+import interpreter.value.IntegerValue;
 import interpreter.value.StringValue;
 import interpreter.value.Value;
 
+// Variáveis do script, num quadro de posições resolvidas pelo analisador.
+// Cada posição tem uma marca e um inteiro em ints ou um valor em refs; o
+// inteiro só é encaixotado quando lido como valor, e a caixa dura até a
+// próxima escrita. As posições contam referências a arranjos, para liberar
+// a memória fora do heap assim que a última for sobrescrita.
 public class Memory {
 
-    private static Map<String, Value<?> > memory = new HashMap<String, Value<?> >();
+    private static final byte UNDEFINED = 0;
+    private static final byte INTEGER = 1;
+    private static final byte REFERENCE = 2;
+
+    private static Map<String, Integer> slots = new HashMap<String, Integer>();
+    private static String[] names = new String[16];
+    private static byte[] tags = new byte[16];
+    private static long[] ints = new long[16];
+    // Para INTEGER, guarda a caixa já criada (ou null).
+    private static Value<?>[] refs = new Value<?>[16];
+
+    // Entre defer() e settle(), arranjos sem referências esperam em pending:
+    // a atribuição ainda pode ter um deles em mãos como valor temporário.
+    private static int deferred;
+    private static List<ArrayValue> pending = new ArrayList<ArrayValue>();
+
+    public static int slot(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = slots.size();
+            if (slot == names.length) {
+                int n = slot * 2;
+                names = Arrays.copyOf(names, n);
+                tags = Arrays.copyOf(tags, n);
+                ints = Arrays.copyOf(ints, n);
+                refs = Arrays.copyOf(refs, n);
+            }
+
+            names[slot] = name;
+            slots.put(name, slot);
+        }
+
+        return slot;
+    }
 
     public static Value<?> read(String name) {
-        Value<?> value = memory.get(name);
+        return read(slot(name));
+    }
+
+    public static void write(String name, Value<?> value) {
+        write(slot(name), value);
+    }
+
+    public static Value<?> read(int slot) {
+        Value<?> value = refs[slot];
         if (value == null) {
-            value = new StringValue("");
-            Memory.write(name, value);
+            if (tags[slot] == INTEGER) {
+                value = new IntegerValue((int) ints[slot]);
+            } else {
+                // Variável não definida vale "".
+                value = new StringValue("");
+                tags[slot] = REFERENCE;
+            }
+            refs[slot] = value;
         }
 
         return value;
     }
 
-    public static void write(String name, Value<?> value) {
-        memory.put(name, value);
+    public static void write(int slot, Value<?> value) {
+        Value<?> old = tags[slot] == REFERENCE ? refs[slot] : null;
+        if (value instanceof IntegerValue) {
+            tags[slot] = INTEGER;
+            ints[slot] = ((IntegerValue) value).value();
+        } else {
+            tags[slot] = REFERENCE;
+            retain(value);
+        }
+        refs[slot] = value;
+        release(old);
+    }
+
+    public static boolean isInteger(int slot) {
+        return tags[slot] == INTEGER;
+    }
+
+    // Só vale quando isInteger(slot).
+    public static int readInt(int slot) {
+        return (int) ints[slot];
+    }
+
+    public static void writeInt(int slot, int value) {
+        if (tags[slot] == REFERENCE)
+            release(refs[slot]);
+
+        tags[slot] = INTEGER;
+        ints[slot] = value;
+        refs[slot] = null;
+    }
+
+    // Esquece o valor de uma variável que não será mais lida.
+    public static void clear(int slot) {
+        if (tags[slot] == REFERENCE)
+            release(refs[slot]);
+
+        tags[slot] = UNDEFINED;
+        refs[slot] = null;
+    }
+
+    // Esquece os valores; os nomes continuam ligados às mesmas posições.
+    public static void clear() {
+        for (int i = 0; i < slots.size(); i++) {
+            if (tags[i] == REFERENCE)
+                release(refs[i]);
+        }
+
+        Arrays.fill(tags, UNDEFINED);
+        Arrays.fill(refs, null);
+    }
+
+    // Esquece também os nomes, voltando ao tamanho inicial. Invalida as
+    // posições já resolvidas: só pode ser chamado antes de analisar um novo
+    // programa, como o daemon faz entre um script e outro.
+    public static void reset() {
+        clear();
+
+        slots.clear();
+        names = new String[16];
+        tags = new byte[16];
+        ints = new long[16];
+        refs = new Value<?>[16];
+        deferred = 0;
+        pending.clear();
+    }
+
+    public static void retain(Value<?> value) {
+        if (value instanceof ArrayValue)
+            ((ArrayValue) value).retain();
+    }
+
+    public static void release(Value<?> value) {
+        if (value instanceof ArrayValue && ((ArrayValue) value).release()) {
+            if (deferred > 0)
+                pending.add((ArrayValue) value);
+            else
+                ((ArrayValue) value).free();
+        }
+    }
+
+    public static void defer() {
+        deferred++;
+    }
+
+    // free() confere de novo: o arranjo pode ter ganho outra referência
+    // depois de entrar em pending.
+    public static void settle() {
+        if (--deferred == 0 && !pending.isEmpty()) {
+            for (ArrayValue av : pending)
+                av.free();
+
+            pending.clear();
+        }
+    }
+
+    public static int size() {
+        int n = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            if (tags[i] != UNDEFINED)
+                n++;
+        }
+
+        return n;
+    }
+
+    public static Collection<Value<?>> values() {
+        return entries0().values();
+    }
+
+    public static Set<Map.Entry<String, Value<?>>> entries() {
+        return entries0().entrySet();
+    }
+
+    // Também é chamado pela thread do JMX, por isso não guarda as caixas
+    // que cria: cada chamada devolve uma cópia independente.
+    private static Map<String, Value<?>> entries0() {
+        Map<String, Value<?>> map = new LinkedHashMap<String, Value<?>>();
+        for (int i = 0; i < slots.size(); i++) {
+            Value<?> value = refs[i];
+            if (value == null && tags[i] == INTEGER)
+                value = new IntegerValue((int) ints[i]);
+
+            if (tags[i] != UNDEFINED)
+                map.put(names[i], value);
+        }
+
+        return map;
     }
 
 }
@@ -0,0 +1,228 @@
+package interpreter.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+
+import interpreter.value.ArrayValue;
+import interpreter.value.BigIntegerValue;
+import interpreter.value.IntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+// Snapshot binário da Memory, para não reexecutar um prelúdio.
+//
+//   cabeçalho  "MRBS" version:int values:int variables:int
+//   valor      INTEGER n:int | STRING len:int utf8[len] | ARRAY size:int id:int[size]
+//              | BIG_INTEGER len:int bytes[len] | INT_ARRAY size:int n:int[size]
+//   variável   len:int utf8[len] id:int
+//
+// Cada valor é gravado uma vez e referenciado pelo índice, então arranjos
+// compartilhados voltam compartilhados. A carga mapeia o arquivo e faz duas
+// passadas: uma cria os valores, a outra liga os elementos dos arranjos.
+public class MemorySnapshot {
+
+    private static final int MAGIC = 0x4D524253; // "MRBS"
+    private static final int VERSION = 3;
+
+    private static final byte INTEGER = 1;
+    private static final byte STRING = 2;
+    private static final byte ARRAY = 3;
+    // Desde a versão 2.
+    private static final byte BIG_INTEGER = 4;
+    // Desde a versão 3: arranjo empacotado, gravado e lido sem caixas.
+    private static final byte INT_ARRAY = 5;
+
+    public static void save(Path file) throws IOException {
+        Map<Value<?>, Integer> ids = new IdentityHashMap<Value<?>, Integer>();
+        List<Value<?>> values = new ArrayList<Value<?>>();
+
+        // Uma só leitura da memória: as caixas dos inteiros mudam a cada uma.
+        Set<Map.Entry<String, Value<?>>> variables = Memory.entries();
+        for (Map.Entry<String, Value<?>> e : variables)
+            enumerate(e.getValue(), ids, values);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(values.size());
+            out.writeInt(variables.size());
+
+            for (Value<?> v : values) {
+                if (v instanceof IntegerValue) {
+                    out.writeByte(INTEGER);
+                    out.writeInt(((IntegerValue) v).value());
+                } else if (v instanceof BigIntegerValue) {
+                    byte[] bytes = ((BigIntegerValue) v).value().toByteArray();
+                    out.writeByte(BIG_INTEGER);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                } else if (v instanceof StringValue) {
+                    out.writeByte(STRING);
+                    writeString(out, ((StringValue) v).value());
+                } else if (((ArrayValue) v).isPacked()) {
+                    ArrayValue av = (ArrayValue) v;
+                    out.writeByte(INT_ARRAY);
+                    out.writeInt(av.size());
+                    for (int i = 0; i < av.size(); i++)
+                        out.writeInt(av.getInt(i));
+                } else {
+                    Vector<Value<?>> elements = ((ArrayValue) v).value();
+                    out.writeByte(ARRAY);
+                    out.writeInt(elements.size());
+                    for (int i = 0; i < elements.size(); i++)
+                        out.writeInt(ids.get(elements.get(i)));
+                }
+            }
+
+            for (Map.Entry<String, Value<?>> e : variables) {
+                writeString(out, e.getKey());
+                out.writeInt(ids.get(e.getValue()));
+            }
+        }
+    }
+
+    // Numera os valores alcançáveis em largura, sem recursão, para que
+    // arranjos muito aninhados não estourem a pilha.
+    private static void enumerate(Value<?> root, Map<Value<?>, Integer> ids, List<Value<?>> values) {
+        if (ids.containsKey(root))
+            return;
+
+        int next = values.size();
+        ids.put(root, values.size());
+        values.add(root);
+
+        while (next < values.size()) {
+            Value<?> v = values.get(next++);
+            // Arranjos empacotados não têm elementos com identidade.
+            if (v instanceof ArrayValue && !((ArrayValue) v).isPacked()) {
+                Vector<Value<?>> elements = ((ArrayValue) v).value();
+                for (int i = 0; i < elements.size(); i++) {
+                    Value<?> e = elements.get(i);
+                    if (!ids.containsKey(e)) {
+                        ids.put(e, values.size());
+                        values.add(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static void restore(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            restore(buf);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, índices inválidos etc.
+            throw new IOException("Corrupted snapshot: " + file, e);
+        }
+    }
+
+    private static void restore(ByteBuffer buf) throws IOException {
+        if (buf.getInt() != MAGIC)
+            throw new IOException("Not a miniRuby snapshot");
+
+        int version = buf.getInt();
+        if (version < 1 || version > VERSION)
+            throw new IOException("Unsupported snapshot version " + version);
+
+        // Cada valor ocupa ao menos 5 bytes e cada variável ao menos 8.
+        int count = buf.getInt();
+        int variables = buf.getInt();
+        check(count, buf.remaining() / 5);
+        check(variables, buf.remaining() / 8);
+
+        // Primeira passada: cria os valores e guarda onde estão os
+        // elementos de cada arranjo.
+        Value<?>[] values = new Value<?>[count];
+        int[] elements = new int[count];
+        for (int id = 0; id < count; id++) {
+            byte tag = buf.get();
+            switch (tag) {
+                case INTEGER:
+                    values[id] = new IntegerValue(buf.getInt());
+                    break;
+                case STRING:
+                    values[id] = new StringValue(readString(buf));
+                    break;
+                case BIG_INTEGER:
+                    byte[] bytes = new byte[length(buf, 1)];
+                    buf.get(bytes);
+                    values[id] = BigIntegerValue.valueOf(new BigInteger(bytes));
+                    break;
+                case ARRAY:
+                    int size = length(buf, 4);
+                    elements[id] = buf.position();
+                    values[id] = new ArrayValue(new Vector<Value<?>>(size));
+                    buf.position(buf.position() + 4 * size);
+                    break;
+                case INT_ARRAY:
+                    int[] ints = new int[length(buf, 4)];
+                    buf.asIntBuffer().get(ints);
+                    buf.position(buf.position() + 4 * ints.length);
+                    values[id] = new ArrayValue(ints, ints.length);
+                    break;
+                default:
+                    throw new IOException("Unknown value tag " + tag);
+            }
+        }
+        int end = buf.position();
+
+        // Segunda passada: liga os elementos dos arranjos. set() fixa os
+        // arranjos aninhados e mantém empacotado o que só tem inteiros.
+        for (int id = 0; id < count; id++) {
+            if (elements[id] > 0) {
+                ArrayValue av = (ArrayValue) values[id];
+                int size = buf.getInt(elements[id] - 4);
+                for (int i = 0; i < size; i++)
+                    av.set(i, values[buf.getInt(elements[id] + 4 * i)]);
+            }
+        }
+
+        buf.position(end);
+        for (int i = 0; i < variables; i++) {
+            String name = readString(buf);
+            Memory.write(name, values[buf.getInt()]);
+        }
+    }
+
+    // Tamanho de um bloco de itens de unit bytes, conferido com o que resta
+    // do arquivo antes de qualquer alocação.
+    private static int length(ByteBuffer buf, int unit) throws IOException {
+        int n = buf.getInt();
+        check(n, buf.remaining() / unit);
+        return n;
+    }
+
+    private static void check(int n, int max) throws IOException {
+        if (n < 0 || n > max)
+            throw new IOException("Corrupted snapshot: invalid length " + n);
+    }
+
+    private static String readString(ByteBuffer buf) throws IOException {
+        byte[] bytes = new byte[length(buf, 1)];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,282 @@
+package interpreter.util;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import interpreter.command.ClearCommand;
+import interpreter.command.Command;
+
+// Perfilador opcional. Cada comando executado é contado por linha, e o
+// interpretador publica a pilha de comandos em execução. Uma thread lê essa
+// pilha a cada INTERVAL e atribui a ela o tempo desde a leitura anterior,
+// montando a árvore de contextos de onde saem os relatórios. O
+// interpretador não lê o relógio.
+public class Profiler {
+
+    private static class Node {
+        final Command cmd;
+        final Map<Command, Node> children = new IdentityHashMap<Command, Node>(4);
+        long samples;
+        long selfNanos;
+
+        Node(Command cmd) {
+            this.cmd = cmd;
+        }
+
+        Node child(Command cmd) {
+            Node n = children.get(cmd);
+            if (n == null) {
+                n = new Node(cmd);
+                children.put(cmd, n);
+            }
+            return n;
+        }
+
+        long totalNanos() {
+            long total = selfNanos;
+            for (Node child : children.values())
+                total += child.totalNanos();
+
+            return total;
+        }
+    }
+
+    private static class Entry {
+        final String name;
+        final int line;
+        long count;
+        long selfNanos;
+        long totalNanos;
+
+        Entry(String name, int line) {
+            this.name = name;
+            this.line = line;
+        }
+    }
+
+    private static final long INTERVAL = 100_000L;
+
+    // Escritas opacas: custam o mesmo que escritas comuns, mas o JIT não
+    // pode adiá-las nem eliminá-las, então o amostrador acaba vendo-as.
+    private static final VarHandle DEPTH;
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Command[].class);
+
+    static {
+        try {
+            DEPTH = MethodHandles.lookup().findStaticVarHandle(Profiler.class, "depth", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static boolean enabled = false;
+    private static Node root = new Node(null);
+    private static Thread sampler;
+
+    // Contagem exata de execuções dos comandos de cada linha.
+    private static long[] lineCounts = new long[64];
+
+    // Comandos em execução, lidos pelo amostrador.
+    private static Command[] stack = new Command[64];
+    private static int depth;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+
+        sampler = new Thread(Profiler::sample, "mrbi-profiler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    // O comando entra na pilha antes da contagem, para que o custo dela caia
+    // sobre ele e não sobre o bloco que o executa. As limpezas inseridas
+    // pela Liveness não são do script: ficam fora das contagens e o tempo
+    // delas vai para o bloco.
+    public static void execute(Command cmd) {
+        if (cmd instanceof ClearCommand) {
+            cmd.execute();
+            return;
+        }
+
+        int d = depth;
+        if (d == stack.length)
+            stack = Arrays.copyOf(stack, d * 2);
+        ELEMENT.setOpaque(stack, d, cmd);
+        DEPTH.setOpaque(d + 1);
+
+        int line = cmd.getLine();
+        if (line >= lineCounts.length)
+            lineCounts = Arrays.copyOf(lineCounts, Math.max(line + 1, lineCounts.length * 2));
+        lineCounts[line]++;
+
+        try {
+            cmd.execute();
+        } finally {
+            DEPTH.setOpaque(d);
+        }
+    }
+
+    // Laço do amostrador. O tempo de cada amostra é o medido desde a
+    // anterior, não o intervalo pedido, para absorver atrasos do sistema.
+    // Sem comando em execução (análise, saída do programa) o tempo é
+    // descartado.
+    private static void sample() {
+        Command[] path = new Command[64];
+        long last = System.nanoTime();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(INTERVAL);
+
+            long now = System.nanoTime();
+            long elapsed = now - last;
+            last = now;
+
+            Command[] s = stack;
+            int d = Math.min((int) DEPTH.getOpaque(), s.length);
+            if (d > path.length)
+                path = new Command[Math.max(d, path.length * 2)];
+
+            // Uma entrada acima de depth pode ser de um comando que já
+            // terminou; a leitura não é atômica e basta ser plausível.
+            int n = 0;
+            for (int i = 0; i < d; i++) {
+                Command c = (Command) ELEMENT.getOpaque(s, i);
+                if (c == null)
+                    break;
+                path[n++] = c;
+            }
+
+            if (n == 0)
+                continue;
+
+            Node node = root;
+            for (int i = 0; i < n; i++)
+                node = node.child(path[i]);
+            node.samples++;
+            node.selfNanos += elapsed;
+        }
+    }
+
+    // Para o amostrador antes de ler a árvore; o join torna visível tudo o
+    // que ele gravou.
+    private static void stop() {
+        if (sampler == null)
+            return;
+
+        sampler.interrupt();
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sampler = null;
+    }
+
+    public static void report(PrintStream out, int limit) {
+        stop();
+
+        Map<Command, Entry> byCmd = new IdentityHashMap<Command, Entry>();
+        collect(root, byCmd);
+
+        long[] lineSelf = new long[lineCounts.length];
+        long totalSelf = 0;
+        for (Entry e : byCmd.values()) {
+            lineSelf[e.line] += e.selfNanos;
+            totalSelf += e.selfNanos;
+        }
+
+        List<Entry> lines = new ArrayList<Entry>();
+        for (int l = 0; l < lineCounts.length; l++) {
+            if (lineCounts[l] > 0) {
+                Entry e = new Entry("", l);
+                e.count = lineCounts[l];
+                e.selfNanos = lineSelf[l];
+                lines.add(e);
+            }
+        }
+
+        List<Entry> cmds = new ArrayList<Entry>(byCmd.values());
+        Collections.sort(lines, (a, b) -> Long.compare(b.selfNanos, a.selfNanos));
+        Collections.sort(cmds, (a, b) -> Long.compare(b.selfNanos, a.selfNanos));
+
+        out.println();
+        out.printf("Hot lines (sampled every %d us):\n", INTERVAL / 1000);
+        out.printf("%6s %12s %12s %7s\n", "line", "count", "self ms", "self %");
+        for (int i = 0; i < lines.size() && i < limit; i++) {
+            Entry e = lines.get(i);
+            out.printf("%6d %12d %12.3f %6.1f%%\n", e.line, e.count, e.selfNanos / 1e6,
+                    percent(e.selfNanos, totalSelf));
+        }
+
+        out.println();
+        out.println("Hot commands:");
+        out.printf("%6s %-20s %12s %12s %12s\n", "line", "command", "samples", "self ms", "total ms");
+        for (int i = 0; i < cmds.size() && i < limit; i++) {
+            Entry e = cmds.get(i);
+            out.printf("%6d %-20s %12d %12.3f %12.3f\n", e.line, e.name, e.count, e.selfNanos / 1e6,
+                    e.totalNanos / 1e6);
+        }
+    }
+
+    // Um comando alcançado por caminhos diferentes soma todos eles. Um
+    // comando dentro de si mesmo não ocorre: a linguagem não tem funções.
+    private static void collect(Node node, Map<Command, Entry> byCmd) {
+        for (Node child : node.children.values()) {
+            Command cmd = child.cmd;
+            Entry e = byCmd.get(cmd);
+            if (e == null) {
+                e = new Entry(cmd.getClass().getSimpleName(), cmd.getLine());
+                byCmd.put(cmd, e);
+            }
+            e.count += child.samples;
+            e.selfNanos += child.selfNanos;
+            e.totalNanos += child.totalNanos();
+
+            collect(child, byCmd);
+        }
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0.0 : 100.0 * part / total;
+    }
+
+    // Formato "collapsed" (uma pilha por linha, quadros separados por ';'),
+    // lido por flamegraph.pl e speedscope. Os pesos são em microssegundos.
+    public static void writeCollapsed(Path file) throws IOException {
+        stop();
+
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            for (Node child : root.children.values())
+                writeCollapsed(pw, child, "");
+        }
+    }
+
+    private static void writeCollapsed(PrintWriter pw, Node node, String prefix) {
+        String stack = prefix + node.cmd.getClass().getSimpleName() + ":" + node.cmd.getLine();
+
+        long self = node.selfNanos / 1000;
+        if (self > 0)
+            pw.println(stack + " " + self);
+
+        for (Node child : node.children.values())
+            writeCollapsed(pw, child, stack + ";");
+    }
+
+}
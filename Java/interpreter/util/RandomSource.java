@@ -0,0 +1,73 @@
+package interpreter.util;
+
+import java.util.SplittableRandom;
+
+// Gerador do rand: um SplittableRandom, sem travas, lido por um buffer. Sem
+// semente cada execução sorteia uma sequência diferente; com setSeed ou a
+// propriedade mrbi.seed (programas compilados), a mesma. Cada script do
+// daemon recebe seu próprio fluxo.
+public class RandomSource {
+
+    private static final int BUFFER = 512;
+
+    private static SplittableRandom root;
+    private static RandomSource current;
+
+    private final SplittableRandom random;
+    private final int[] buffer = new int[BUFFER];
+    private int next = BUFFER;
+
+    private RandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public static void setSeed(long seed) {
+        root = new SplittableRandom(seed);
+        current = null;
+    }
+
+    // Troca para um novo fluxo independente; usado pelo daemon antes de cada
+    // script.
+    public static void restart() {
+        current = new RandomSource(root().split());
+    }
+
+    // Próximo valor de rand, em [0, Integer.MAX_VALUE).
+    public static int nextInt() {
+        RandomSource r = current;
+        if (r == null)
+            current = r = new RandomSource(root());
+
+        if (r.next == BUFFER)
+            r.fill();
+
+        return r.buffer[r.next++];
+    }
+
+    private static SplittableRandom root() {
+        if (root == null) {
+            String seed = System.getProperty("mrbi.seed");
+            root = seed != null ? new SplittableRandom(Long.parseLong(seed)) : new SplittableRandom();
+        }
+
+        return root;
+    }
+
+    // Dois valores de 31 bits por long. Integer.MAX_VALUE é descartado para
+    // manter o intervalo de Random.nextInt(Integer.MAX_VALUE), sem viés.
+    private void fill() {
+        int n = 0;
+        while (n < BUFFER) {
+            long r = random.nextLong();
+            int hi = (int) (r >>> 33);
+            int lo = (int) r >>> 1;
+            if (hi != Integer.MAX_VALUE)
+                buffer[n++] = hi;
+            if (lo != Integer.MAX_VALUE && n < BUFFER)
+                buffer[n++] = lo;
+        }
+
+        next = 0;
+    }
+
+}
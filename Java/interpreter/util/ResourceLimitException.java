@@ -0,0 +1,9 @@
+package interpreter.util;
+
+public class ResourceLimitException extends InterpreterException {
+
+    public ResourceLimitException(int line, String msg) {
+        super(line, msg);
+    }
+
+}
@@ -0,0 +1,181 @@
+package interpreter.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import interpreter.value.ArrayValue;
+import interpreter.value.BigIntegerValue;
+import interpreter.value.StringValue;
+import interpreter.value.Value;
+
+// Contadores do interpretador no MXBean miniruby:type=RuntimeMetrics.
+// Desligados até register() (mrbi --jmx); são LongAdders, para o
+// interpretador não disputar com o leitor JMX.
+public class RuntimeMetrics implements RuntimeMetricsMXBean {
+
+    public static final String OBJECT_NAME = "miniruby:type=RuntimeMetrics";
+
+    // Estimativas para uma JVM de 64 bits com compressed oops.
+    private static final long OBJECT_HEADER = 16;
+    private static final long INTEGER_SIZE = OBJECT_HEADER + 16;
+    private static final long STRING_SIZE = OBJECT_HEADER + 24;
+    private static final long ARRAY_SIZE = OBJECT_HEADER + 32 + OBJECT_HEADER;
+
+    public static boolean enabled = false;
+
+    private static final LongAdder commands = new LongAdder();
+    private static final LongAdder integers = new LongAdder();
+    private static final LongAdder strings = new LongAdder();
+    private static final LongAdder arrays = new LongAdder();
+    private static final LongAdder output = new LongAdder();
+    // Só a thread do interpretador escreve; o JMX apenas lê.
+    private static volatile long largestArray = 0;
+
+    // Últimas leituras da memória que chegaram ao fim; ver
+    // getRetainedSizeEstimate.
+    private static volatile long lastRetained = 0;
+    private static volatile int lastVariables = 0;
+
+    public static void register() throws Exception {
+        enabled = true;
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new RuntimeMetrics(), new ObjectName(OBJECT_NAME));
+    }
+
+    public static void commandsExecuted(int n) {
+        commands.add(n);
+    }
+
+    public static void integerAllocated() {
+        integers.increment();
+    }
+
+    public static void stringAllocated() {
+        strings.increment();
+    }
+
+    public static void arrayAllocated(int length) {
+        arrays.increment();
+        arrayResized(length);
+    }
+
+    public static void arrayResized(int length) {
+        if (length > largestArray)
+            largestArray = length;
+    }
+
+    // Bytes em UTF-8, contados sem codificar a string; puts soma o '\n'.
+    public static void outputWritten(String str, boolean newline) {
+        long bytes = newline ? 1 : 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < str.length()
+                    && Character.isLowSurrogate(str.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        output.add(bytes);
+    }
+
+    @Override
+    public long getCommandsExecuted() {
+        return commands.sum();
+    }
+
+    @Override
+    public long getIntegerAllocations() {
+        return integers.sum();
+    }
+
+    @Override
+    public long getStringAllocations() {
+        return strings.sum();
+    }
+
+    @Override
+    public long getArrayAllocations() {
+        return arrays.sum();
+    }
+
+    @Override
+    public int getVariableCount() {
+        try {
+            lastVariables = Memory.size();
+        } catch (RuntimeException e) {
+            // Memória trocada durante a leitura (reset do daemon).
+        }
+
+        return lastVariables;
+    }
+
+    @Override
+    public long getRetainedSizeEstimate() {
+        // A memória é lida sem sincronização a partir da thread do JMX. Se o
+        // script a modificar durante a varredura (um arranjo que passa de
+        // empacotado a vetor, um Vector que cresce, a tabela trocada pelo
+        // daemon), a leitura pode falhar de vários jeitos; nenhum deles chega
+        // ao cliente JMX: vale a última estimativa completa.
+        try {
+            Map<Value<?>, Boolean> seen = new IdentityHashMap<Value<?>, Boolean>();
+            long size = 0;
+            for (Value<?> v : Memory.values())
+                size += sizeOf(v, seen);
+
+            lastRetained = size;
+        } catch (RuntimeException e) {
+            // Mantém a estimativa anterior.
+        }
+
+        return lastRetained;
+    }
+
+    @Override
+    public long getLargestArrayLength() {
+        return largestArray;
+    }
+
+    @Override
+    public long getOutputBytes() {
+        return output.sum();
+    }
+
+    private static long sizeOf(Value<?> v, Map<Value<?>, Boolean> seen) {
+        if (v == null || seen.put(v, Boolean.TRUE) != null)
+            return 0;
+
+        if (v instanceof StringValue)
+            return STRING_SIZE + OBJECT_HEADER + ((StringValue) v).value().length();
+
+        if (v instanceof BigIntegerValue)
+            return INTEGER_SIZE + OBJECT_HEADER + ((BigIntegerValue) v).value().bitLength() / 8;
+
+        if (v instanceof ArrayValue) {
+            ArrayValue av = (ArrayValue) v;
+            // Fora do heap, os elementos não contam.
+            if (av.isOffHeap())
+                return ARRAY_SIZE;
+
+            long size = ARRAY_SIZE + 4L * av.size();
+            if (av.isPacked())
+                return size;
+
+            for (int i = 0; i < av.size(); i++)
+                size += sizeOf(av.get(i), seen);
+
+            return size;
+        }
+
+        return INTEGER_SIZE;
+    }
+
+}
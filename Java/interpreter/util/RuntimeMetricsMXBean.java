@@ -0,0 +1,21 @@
+package interpreter.util;
+
+public interface RuntimeMetricsMXBean {
+
+    long getCommandsExecuted();
+
+    long getIntegerAllocations();
+
+    long getStringAllocations();
+
+    long getArrayAllocations();
+
+    int getVariableCount();
+
+    long getRetainedSizeEstimate();
+
+    long getLargestArrayLength();
+
+    long getOutputBytes();
+
+}
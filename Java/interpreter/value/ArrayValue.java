@@ -1,17 +1,384 @@
 package interpreter.value;
 
+import java.util.Arrays;
 import java.util.Vector;
 
-public class ArrayValue extends Value<Vector<? extends Value<?>>> {
+import interpreter.util.Governor;
+import interpreter.util.RuntimeMetrics;
 
-    private Vector<? extends Value<?>> value;
+public class ArrayValue extends Value<Vector<Value<?>>> {
 
-    public ArrayValue(Vector<? extends Value<?>> value) {
-        this.value = value;
+    private static final IntArrayOps OPS = IntArrayOps.get();
+
+    // Enquanto todos os elementos são inteiros eles ficam em ints[0..count),
+    // ou fora do heap em big quando o arranjo passa do limite de
+    // OffHeapInts, e value é null. O primeiro elemento de outro tipo, ou um
+    // pedido do vetor por value(), desempacota o arranjo de vez.
+    private Vector<Value<?>> value;
+    private int[] ints;
+    private OffHeapInts big;
+    private int count;
+
+    // Posições da memória que guardam este arranjo. Quando a última é
+    // sobrescrita o armazenamento fora do heap é devolvido na hora, a não
+    // ser que o arranjo esteja guardado dentro de outro: aí fica com o GC.
+    private int refs;
+    private boolean pinned;
+
+    // Os elementos são cobrados do Governor antes de existir o
+    // armazenamento: um arranjo enorme para no limite, não na falta de
+    // memória.
+    public ArrayValue(Vector<Value<?>> value) {
+        allocated(value.size());
+        init(value);
+    }
+
+    public ArrayValue(int[] ints, int count) {
+        allocated(count);
+        pack(ints, count);
+    }
+
+    private ArrayValue(int[] ints, OffHeapInts big, int count) {
+        this.ints = ints;
+        this.big = big;
+        this.count = count;
+    }
+
+    // from, from + 1, ..., from + n - 1, sem passar por um int[] quando vai
+    // direto para fora do heap.
+    public static ArrayValue range(int from, int n) {
+        allocated(n);
+
+        if (n <= OffHeapInts.getThreshold()) {
+            int[] v = new int[n];
+            for (int i = 0; i < n; i++)
+                v[i] = from + i;
+
+            return new ArrayValue(v, null, n);
+        }
+
+        OffHeapInts big = new OffHeapInts();
+        big.reserve(n);
+        for (int i = 0; i < n; i++)
+            big.set(i, from + i);
+
+        return new ArrayValue(null, big, n);
     }
 
-    public Vector<? extends Value<?>> value() {
+    private void init(Vector<Value<?>> value) {
+        if (isIntegers(value)) {
+            int[] v = new int[value.size()];
+            for (int i = 0; i < v.length; i++)
+                v[i] = ((IntegerValue) value.get(i)).value();
+
+            pack(v, v.length);
+        } else {
+            this.value = value;
+            for (int i = 0; i < value.size(); i++)
+                pin(value.get(i));
+        }
+    }
+
+    private void pack(int[] v, int n) {
+        count = n;
+        if (n <= OffHeapInts.getThreshold()) {
+            ints = v;
+        } else {
+            big = new OffHeapInts();
+            big.reserve(n);
+            for (int i = 0; i < n; i++)
+                big.set(i, v[i]);
+        }
+    }
+
+    private static void allocated(int size) {
+        if (Governor.enabled)
+            Governor.allocate(size);
+
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.arrayAllocated(size);
+    }
+
+    private static boolean isIntegers(Vector<Value<?>> value) {
+        for (int i = 0; i < value.size(); i++) {
+            if (!(value.get(i) instanceof IntegerValue))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static void pin(Value<?> v) {
+        if (v instanceof ArrayValue)
+            ((ArrayValue) v).pinned = true;
+    }
+
+    public void retain() {
+        refs++;
+    }
+
+    // Devolve true quando a última referência saiu e há memória fora do heap
+    // a liberar com free().
+    public boolean release() {
+        return --refs == 0 && big != null && !pinned;
+    }
+
+    public void free() {
+        if (refs == 0 && big != null && !pinned) {
+            // Sem armazenamento nenhum: um acesso indevido daqui em diante
+            // falha em vez de ler memória devolvida.
+            big.free();
+            big = null;
+        }
+    }
+
+    public Vector<Value<?>> value() {
+        unpack();
         return value;
     }
 
+    public boolean isPacked() {
+        return value == null;
+    }
+
+    public boolean isOffHeap() {
+        return big != null;
+    }
+
+    // Só para arranjos empacotados, com índice já verificado.
+    public int getInt(int index) {
+        return ints != null ? ints[index] : big.get(index);
+    }
+
+    public int size() {
+        return value == null ? count : value.size();
+    }
+
+    public Value<?> get(int index) {
+        if (value == null) {
+            if (index >= count)
+                throw new ArrayIndexOutOfBoundsException(index);
+
+            return new IntegerValue(getInt(index));
+        }
+
+        return value.get(index);
+    }
+
+    public void set(int index, Value<?> v) {
+        if (value == null) {
+            if (v instanceof IntegerValue && index <= count) {
+                setInt(index, ((IntegerValue) v).value());
+                return;
+            }
+
+            unpack();
+        }
+
+        pin(v);
+
+        if (index < value.size()) {
+            value.set(index, v);
+        } else {
+            if (Governor.enabled)
+                Governor.allocate(index + 1 - value.size());
+
+            // Como em Ruby, atribuir além do fim cresce o arranjo.
+            while (value.size() < index)
+                value.add(new StringValue(""));
+
+            value.add(v);
+        }
+
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.arrayResized(value.size());
+    }
+
+    public void setInt(int index, int n) {
+        if (value != null || index > count) {
+            set(index, new IntegerValue(n));
+            return;
+        }
+
+        if (index == count) {
+            if (Governor.enabled)
+                Governor.allocate(1);
+
+            grow();
+            count++;
+        }
+
+        if (ints != null)
+            ints[index] = n;
+        else
+            big.set(index, n);
+
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.arrayResized(count);
+    }
+
+    // Espaço para mais um elemento.
+    private void grow() {
+        if (ints == null) {
+            big.reserve(count + 1);
+        } else if (count == ints.length) {
+            if (count < OffHeapInts.getThreshold()) {
+                ints = Arrays.copyOf(ints, Math.min(Math.max(8, count + (count >> 1)), OffHeapInts.getThreshold()));
+            } else {
+                big = new OffHeapInts();
+                big.reserve(count + 1);
+                for (int i = 0; i < count; i++)
+                    big.set(i, ints[i]);
+                ints = null;
+            }
+        }
+    }
+
+    public void swap(int i, int j) {
+        if (ints != null) {
+            int tmp = ints[i];
+            ints[i] = ints[j];
+            ints[j] = tmp;
+        } else if (big != null) {
+            int tmp = big.get(i);
+            big.set(i, big.get(j));
+            big.set(j, tmp);
+        } else {
+            Value<?> tmp = value.get(i);
+            value.set(i, value.get(j));
+            value.set(j, tmp);
+        }
+    }
+
+    public boolean contains(Value<?> v) {
+        if (value != null)
+            return value.contains(v);
+
+        if (!(v instanceof IntegerValue))
+            return false;
+
+        int key = ((IntegerValue) v).value();
+        return (ints != null ? OPS.indexOf(ints, count, key) : big.indexOf(count, key)) >= 0;
+    }
+
+    public ArrayValue concat(ArrayValue other) {
+        int n = this.size() + other.size();
+        allocated(n);
+
+        if (this.value == null && other.value == null) {
+            if (this.ints != null && other.ints != null && n <= OffHeapInts.getThreshold())
+                return new ArrayValue(OPS.concat(this.ints, this.count, other.ints, other.count), null, n);
+
+            OffHeapInts r = new OffHeapInts();
+            r.reserve(n);
+            for (int i = 0; i < this.count; i++)
+                r.set(i, this.getInt(i));
+            for (int i = 0; i < other.count; i++)
+                r.set(this.count + i, other.getInt(i));
+
+            return new ArrayValue(null, r, n);
+        }
+
+        Vector<Value<?>> v = new Vector<Value<?>>(n);
+        this.addTo(v);
+        other.addTo(v);
+
+        ArrayValue r = new ArrayValue(null, null, 0);
+        r.init(v);
+        return r;
+    }
+
+    // Acrescenta os elementos sem desempacotar este arranjo.
+    private void addTo(Vector<Value<?>> v) {
+        if (value != null) {
+            v.addAll(value);
+            return;
+        }
+
+        for (int i = 0; i < count; i++)
+            v.add(new IntegerValue(getInt(i)));
+    }
+
+    private void unpack() {
+        if (value != null)
+            return;
+
+        Vector<Value<?>> v = new Vector<Value<?>>(Math.max(count, 10));
+        for (int i = 0; i < count; i++)
+            v.add(new IntegerValue(getInt(i)));
+
+        if (big != null)
+            big.free();
+
+        value = v;
+        ints = null;
+        big = null;
+        count = 0;
+    }
+
+    // Mesmo valor de Vector.hashCode, para que as duas formas de um mesmo
+    // arranjo tenham o mesmo hash.
+    @Override
+    public int hashCode() {
+        if (value != null)
+            return value.hashCode();
+
+        int h = 1;
+        for (int i = 0; i < count; i++)
+            h = 31 * h + Integer.hashCode(getInt(i));
+
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (!(obj instanceof ArrayValue))
+            return false;
+
+        ArrayValue other = (ArrayValue) obj;
+        if (this.ints != null && other.ints != null)
+            return this.count == other.count && OPS.equals(this.ints, other.ints, count);
+
+        if (this.value != null && other.value != null)
+            return this.value.equals(other.value);
+
+        if (this.size() != other.size())
+            return false;
+
+        if (this.value == null && other.value == null) {
+            for (int i = 0; i < count; i++) {
+                if (this.getInt(i) != other.getInt(i))
+                    return false;
+            }
+
+            return true;
+        }
+
+        for (int i = 0; i < size(); i++) {
+            if (!this.get(i).equals(other.get(i)))
+                return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            if (i > 0)
+                sb.append(", ");
+
+            if (value == null)
+                sb.append(getInt(i));
+            else
+                sb.append(value.get(i));
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
 }
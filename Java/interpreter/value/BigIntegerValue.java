@@ -0,0 +1,78 @@
+package interpreter.value;
+
+import java.math.BigInteger;
+
+import interpreter.util.RuntimeMetrics;
+
+// Inteiro fora do alcance de IntegerValue. Tudo passa por valueOf, que
+// devolve IntegerValue quando cabe; assim as duas classes nunca guardam o
+// mesmo número.
+public class BigIntegerValue extends Value<BigInteger> {
+
+    private static final BigInteger MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+    private static final BigInteger MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+
+    private BigInteger value;
+
+    private BigIntegerValue(BigInteger value) {
+        this.value = value;
+
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.integerAllocated();
+    }
+
+    public static Value<?> valueOf(long n) {
+        if (n == (int) n)
+            return new IntegerValue((int) n);
+
+        return new BigIntegerValue(BigInteger.valueOf(n));
+    }
+
+    public static Value<?> valueOf(BigInteger n) {
+        if (n.compareTo(MIN) >= 0 && n.compareTo(MAX) <= 0)
+            return new IntegerValue(n.intValue());
+
+        return new BigIntegerValue(n);
+    }
+
+    // Qualquer inteiro como BigInteger; null se não for inteiro.
+    public static BigInteger toBigInteger(Value<?> v) {
+        if (v instanceof IntegerValue)
+            return BigInteger.valueOf(((IntegerValue) v).value());
+
+        if (v instanceof BigIntegerValue)
+            return ((BigIntegerValue) v).value;
+
+        return null;
+    }
+
+    public static boolean isInteger(Value<?> v) {
+        return v instanceof IntegerValue || v instanceof BigIntegerValue;
+    }
+
+    public BigInteger value() {
+        return value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (obj instanceof BigIntegerValue)
+            return this.value.equals(((BigIntegerValue) obj).value);
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return value.toString();
+    }
+
+}
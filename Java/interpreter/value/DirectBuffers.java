@@ -0,0 +1,46 @@
+package interpreter.value;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+// Devolve na hora a memória de um buffer direto ou mapeado. No JDK 17 o
+// único meio é sun.misc.Unsafe.invokeCleaner; ele é obtido por reflexão,
+// sem nenhuma referência a sun.misc em tempo de compilação, e quando não
+// está disponível o buffer simplesmente fica para o GC.
+class DirectBuffers {
+
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private DirectBuffers() {
+    }
+
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+            Field f = unsafe.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafe, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(f.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null)
+            return;
+
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // Não é um buffer direto original; fica para o GC.
+        }
+    }
+
+}
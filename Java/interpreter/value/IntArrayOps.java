@@ -0,0 +1,58 @@
+package interpreter.value;
+
+import java.util.Arrays;
+
+// Operações sobre o int[] dos arranjos compactos. A implementação SIMD é
+// escolhida se a JVM tem jdk.incubator.vector e -Dmrbi.vector=false não foi
+// dado; senão, a escalar.
+public abstract class IntArrayOps {
+
+    private static final IntArrayOps SCALAR = new ScalarIntArrayOps();
+    private static final IntArrayOps VECTOR = loadVector();
+    private static final IntArrayOps INSTANCE = VECTOR != null
+            && !"false".equals(System.getProperty("mrbi.vector")) ? VECTOR : SCALAR;
+
+    public static IntArrayOps get() {
+        return INSTANCE;
+    }
+
+    public static IntArrayOps scalar() {
+        return SCALAR;
+    }
+
+    // null quando o módulo não está disponível.
+    public static IntArrayOps vector() {
+        return VECTOR;
+    }
+
+    private static IntArrayOps loadVector() {
+        // Sem o módulo na camada de boot, nem tenta carregar a classe: ela
+        // falharia na ligação.
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+
+        try {
+            return (IntArrayOps) Class.forName("interpreter.value.VectorIntArrayOps")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    public abstract String name();
+
+    // Primeira posição de key nos n primeiros elementos, ou -1.
+    public abstract int indexOf(int[] a, int n, int key);
+
+    // Os n primeiros elementos de a e b são iguais.
+    public abstract boolean equals(int[] a, int[] b, int n);
+
+    // A cópia já é vetorizada pela própria JVM (System.arraycopy é um
+    // intrínseco), então as duas implementações a compartilham.
+    public int[] concat(int[] a, int na, int[] b, int nb) {
+        int[] r = Arrays.copyOf(a, na + nb);
+        System.arraycopy(b, 0, r, na, nb);
+        return r;
+    }
+
+}
@@ -1,15 +1,41 @@
 package interpreter.value;
 
+import interpreter.util.RuntimeMetrics;
+
 public class IntegerValue extends Value<Integer> {
 
     private Integer value;
 
     public IntegerValue(Integer value) {
         this.value = value;
+
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.integerAllocated();
     }
 
     public Integer value() {
         return value;
     }
 
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (obj instanceof IntegerValue)
+            return this.value.equals(((IntegerValue) obj).value);
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return value.toString();
+    }
+
 }
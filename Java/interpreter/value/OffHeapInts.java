@@ -0,0 +1,121 @@
+package interpreter.value;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Inteiros fora do heap para arranjos muito grandes, em pedaços de CHUNK
+// elementos, para crescer sem cópia. Os pedaços são buffers diretos, ou
+// páginas de um arquivo mapeado se houver diretório de spill. free()
+// devolve a memória na hora; sem ele, o coletor a recupera.
+public class OffHeapInts {
+
+    private static final int CHUNK_BITS = 20;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+
+    // Tamanho a partir do qual um arranjo de inteiros sai do heap.
+    private static int threshold = 1 << 24;
+    private static Path spill;
+
+    private ByteBuffer[] buffers = new ByteBuffer[0];
+    private IntBuffer[] chunks = new IntBuffer[0];
+    private FileChannel file;
+
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    public static void setThreshold(int threshold) {
+        OffHeapInts.threshold = threshold;
+    }
+
+    public static void setSpill(Path dir) {
+        spill = dir;
+    }
+
+    public int get(int index) {
+        return chunks[index >>> CHUNK_BITS].get(index & MASK);
+    }
+
+    public void set(int index, int n) {
+        chunks[index >>> CHUNK_BITS].put(index & MASK, n);
+    }
+
+    // Garante espaço para n elementos.
+    public void reserve(int n) {
+        int need = (int) (((long) n + MASK) >>> CHUNK_BITS);
+        if (need <= chunks.length)
+            return;
+
+        int old = chunks.length;
+        buffers = Arrays.copyOf(buffers, need);
+        chunks = Arrays.copyOf(chunks, need);
+        for (int i = old; i < need; i++) {
+            buffers[i] = allocate(i);
+            chunks[i] = buffers[i].asIntBuffer();
+        }
+    }
+
+    private ByteBuffer allocate(int chunk) {
+        if (spill == null)
+            return ByteBuffer.allocateDirect(CHUNK * 4).order(ByteOrder.nativeOrder());
+
+        try {
+            // Em sistemas POSIX, DELETE_ON_CLOSE apaga o nome já na abertura;
+            // o espaço em disco volta quando o mapeamento é desfeito.
+            if (file == null)
+                file = FileChannel.open(Files.createTempFile(spill, "mrbi", ".ints"), StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+
+            return file.map(FileChannel.MapMode.READ_WRITE, (long) chunk * CHUNK * 4, CHUNK * 4)
+                    .order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Primeira posição de key nos n primeiros elementos, ou -1.
+    public int indexOf(int n, int key) {
+        for (int c = 0; (long) c << CHUNK_BITS < n; c++) {
+            IntBuffer chunk = chunks[c];
+            int base = c << CHUNK_BITS;
+            int end = Math.min(CHUNK, n - base);
+            for (int i = 0; i < end; i++) {
+                if (chunk.get(i) == key)
+                    return base + i;
+            }
+        }
+
+        return -1;
+    }
+
+    // Depois disso qualquer acesso falha com NullPointerException em vez de
+    // ler memória já devolvida.
+    public void free() {
+        ByteBuffer[] b = buffers;
+        FileChannel f = file;
+        buffers = null;
+        chunks = null;
+        file = null;
+
+        for (ByteBuffer buffer : b)
+            DirectBuffers.free(buffer);
+
+        if (f != null) {
+            try {
+                f.close();
+            } catch (IOException e) {
+                // O arquivo já não tem nome; não há o que recuperar.
+            }
+        }
+    }
+
+}
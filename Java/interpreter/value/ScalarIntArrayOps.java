@@ -0,0 +1,28 @@
+package interpreter.value;
+
+import java.util.Arrays;
+
+// Elemento a elemento, quando a Vector API não está disponível.
+class ScalarIntArrayOps extends IntArrayOps {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public int indexOf(int[] a, int n, int key) {
+        for (int i = 0; i < n; i++) {
+            if (a[i] == key)
+                return i;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean equals(int[] a, int[] b, int n) {
+        return Arrays.equals(a, 0, n, b, 0, n);
+    }
+
+}
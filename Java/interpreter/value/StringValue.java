@@ -1,15 +1,45 @@
 package interpreter.value;
 
+import interpreter.util.Governor;
+import interpreter.util.RuntimeMetrics;
+
 public class StringValue extends Value<String> {
 
     private String value;
 
     public StringValue(String value) {
         this.value = value;
+
+        if (Governor.enabled)
+            Governor.allocate(value.length());
+
+        if (RuntimeMetrics.enabled)
+            RuntimeMetrics.stringAllocated();
     }
 
     public String value() {
         return value;
     }
 
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (obj instanceof StringValue)
+            return this.value.equals(((StringValue) obj).value);
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
 }
@@ -0,0 +1,57 @@
+package interpreter.value;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD com o maior vetor da máquina. Só é carregada por IntArrayOps, depois
+// de verificar que jdk.incubator.vector está presente.
+class VectorIntArrayOps extends IntArrayOps {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector " + SPECIES.vectorBitSize() + " bits";
+    }
+
+    @Override
+    public int indexOf(int[] a, int n, int key) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; i < bound; i += SPECIES.length()) {
+            VectorMask<Integer> m = IntVector.fromArray(SPECIES, a, i).compare(VectorOperators.EQ, key);
+            if (m.anyTrue())
+                return i + m.firstTrue();
+        }
+
+        // Resto menor que um vetor.
+        for (; i < n; i++) {
+            if (a[i] == key)
+                return i;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean equals(int[] a, int[] b, int n) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector va = IntVector.fromArray(SPECIES, a, i);
+            IntVector vb = IntVector.fromArray(SPECIES, b, i);
+            if (va.compare(VectorOperators.NE, vb).anyTrue())
+                return false;
+        }
+
+        for (; i < n; i++) {
+            if (a[i] != b[i])
+                return false;
+        }
+
+        return true;
+    }
+
+}
@@ -1,17 +1,99 @@
 package lexical;
 
 import java.io.FileInputStream;
-import java.io.PushbackInputStream;
-
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+// Léxico dirigido por tabela. Cada byte cai numa classe de caracteres, e
+// TABLE[state * CLASSES + class] dá o próximo estado e o que fazer com o
+// byte. Estados a partir de ACCEPT encerram o token, com o tipo de ACCEPTS
+// ou, em ACCEPT_SYMBOL, da tabela de símbolos. As regras estão em build().
+//
+// A entrada é UTF-8: getc() lê ASCII direto do buffer, oito bytes por vez,
+// e decodifica o resto; sequências inválidas viram U+FFFD, como em
+// new String(bytes, UTF_8).
 public class LexicalAnalysis implements AutoCloseable {
 
+    // Classes de caracteres.
+    private static final int C_OTHER = 0;
+    private static final int C_SPACE = 1;
+    private static final int C_NEWLINE = 2;
+    private static final int C_HASH = 3;
+    private static final int C_DOT = 4;
+    private static final int C_EQUALS = 5;
+    private static final int C_ANGLE = 6;
+    private static final int C_STAR = 7;
+    private static final int C_BANG = 8;
+    private static final int C_LETTER = 9;
+    private static final int C_DIGIT = 10;
+    private static final int C_QUOTE = 11;
+    private static final int C_SEMI = 12;
+    private static final int C_SINGLE = 13;
+    private static final int C_EOF = 14;
+    private static final int CLASSES = 15;
+
+    // Estados.
+    private static final int START = 0;
+    private static final int COMMENT = 1;
+    private static final int DOT = 2;
+    private static final int DOT_DOT = 3;
+    private static final int EQUALS = 4;
+    private static final int COMPARE = 5;
+    private static final int STAR = 6;
+    private static final int BANG = 7;
+    private static final int IDENTIFIER = 8;
+    private static final int NUMBER = 9;
+    private static final int STRING = 10;
+    private static final int STATES = 11;
+
+    // Estados finais.
+    private static final int ACCEPT = 11;
+    private static final int ACCEPT_SYMBOL = 11;
+    private static final int ACCEPT_INTEGER = 12;
+    private static final int ACCEPT_STRING = 13;
+    private static final int ACCEPT_EOF = 14;
+    private static final int ACCEPT_INVALID = 15;
+    private static final int ACCEPT_UNEXPECTED_EOF = 16;
+
+    private static final TokenType[] ACCEPTS = { null, TokenType.INTEGER, TokenType.STRING,
+            TokenType.END_OF_FILE, TokenType.INVALID_TOKEN, TokenType.UNEXPECTED_EOF };
+
+    // Ações, nos bits acima do estado.
+    private static final int STATE_MASK = 0x1F;
+    private static final int APPEND = 0x20;
+    private static final int UNGET = 0x40;
+    private static final int NEWLINE = 0x80;
+
+    private static final int REPLACEMENT = 0xFFFD;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+
+    private static final byte[] CLASS = new byte[256];
+    private static final short[] TABLE = new short[STATES * CLASSES];
+
+    static {
+        build();
+    }
+
     private int line;
     private SymbolTable st;
-    private PushbackInputStream input;
+    private InputStream input;
+    private byte[] buf = new byte[8192];
+    private int pos;
+    private int limit;
+    // buf[pos..ascii) é ASCII; mark é onde começa o último caractere lido.
+    private int ascii;
+    private int mark;
+    private StringBuilder token = new StringBuilder();
+    private boolean timed;
+    private long nanos;
 
     public LexicalAnalysis(String filename) throws LexicalException {
         try {
-            input = new PushbackInputStream(new FileInputStream(filename));
+            input = new FileInputStream(filename);
         } catch (Exception e) {
             throw new LexicalException("Unable to open file");
         }
@@ -20,6 +102,12 @@ public class LexicalAnalysis implements AutoCloseable {
         line = 1;
     }
 
+    public LexicalAnalysis(InputStream in) {
+        input = in;
+        st = new SymbolTable();
+        line = 1;
+    }
+
     public void close() throws LexicalException {
         try {
             input.close();
@@ -32,218 +120,254 @@ public class LexicalAnalysis implements AutoCloseable {
         return this.line;
     }
 
-    public Lexeme nextToken() {
-        Lexeme lex = new Lexeme("", TokenType.END_OF_FILE);
+    // Com a medição ligada (mrbi --time), acumula o tempo gasto no léxico.
+    public void setTimed(boolean timed) {
+        this.timed = timed;
+    }
 
-        int state = 1;
-        while (state != 12 && state != 13) {
-            int c = getc();
+    public long getNanos() {
+        return nanos;
+    }
 
-            switch (state) {
-                case 1:
-                    if (c == ' ' || c == '\t' || c == '\r') {
-                        state = 1;
-                    } else if (c == '\n') {
-                        line++;
-                        state = 1;
-                    } else if (c == '#') {
-                        state = 2;
-                    } else if (c == '.') {
-                        lex.token += (char) c;
-                        state = 3;
-                    } else if (c == '=') {
-                        lex.token += (char) c;
-                        state = 5;
-                    } else if (c == '<' || c == '>') {
-                        lex.token += (char) c;
-                        state = 6;
-                    } else if (c == '*') {
-                        lex.token += (char) c;
-                        state = 7;
-                    } else if (c == '!') {
-                        lex.token += (char) c;
-                        state = 8;
-                    }
-
-                    else if (c == '_' || Character.isLetter(c)) {
-                        lex.token += (char) c;
-                        state = 9;
-                    } else if (Character.isDigit(c)) {
-                        lex.token += (char) c;
-                        state = 10;
-                    } else if (c == '\'') {
-                        state = 11;
-                    } else if (c == ';' || c == ',' || c == '+' || c == '-' || c == '%' || c == '/' || c == '['
-                            || c == ']' || c == '(' || c == ')') {
-                        lex.token += (char) c;
-                        state = 12;
-                    } else if (c == -1) {
-                        lex.type = TokenType.END_OF_FILE;
-                        state = 13;
-                    } else {
-                        lex.token += (char) c;
-                        lex.type = TokenType.INVALID_TOKEN;
-                        state = 13;
-                    }
-                    break;
+    public Lexeme nextToken() {
+        if (!timed)
+            return scan();
 
-                case 2:
-                    if (c == '\n') {
-                        line++;
-                        state = 1;
-                    } else if (c == -1) {
-                        lex.type = TokenType.END_OF_FILE;
-                        state = 13;
-                    } else {
-                        state = 2;
-                    }
-                    break;
+        long start = System.nanoTime();
+        Lexeme lex = scan();
+        nanos += System.nanoTime() - start;
+        return lex;
+    }
 
-                case 3:
-                    if (c == '.') {
-                        lex.token += (char) c;
-                        state = 4;
-                    } else {
-                        if (c != -1)
-                            ungetc(c);
+    private Lexeme scan() {
+        token.setLength(0);
 
-                        state = 12;
-                    }
-                    break;
+        int state = START;
+        while (state < ACCEPT) {
+            int c = getc();
+            int cls;
+            if (c < 0)
+                cls = C_EOF;
+            else if (c < 256)
+                cls = CLASS[c];
+            else
+                cls = Character.isLetter(c) ? C_LETTER : C_OTHER;
 
-                case 4:
-                    if (c == '.') {
-                        lex.token += (char) c;
-                        state = 12;
-                    } else {
-                        if (c != -1)
-                            ungetc(c);
+            int t = TABLE[state * CLASSES + cls];
 
-                        state = 12;
-                    }
-                    break;
+            if ((t & APPEND) != 0)
+                token.appendCodePoint(c);
+            else if ((t & UNGET) != 0 && c >= 0)
+                pos = mark;
 
-                case 5:
-                    if (c == '=') {
-                        lex.token += (char) c;
-                        state = 6;
-                    } else {
-                        if (c != -1)
-                            ungetc(c);
+            if ((t & NEWLINE) != 0)
+                line++;
 
-                        state = 12;
-                    }
-                    break;
+            state = t & STATE_MASK;
+        }
 
-                case 6:
-                    if (c == '=') {
-                        lex.token += (char) c;
-                        state = 12;
-                    } else {
-                        if (c != -1)
-                            ungetc(c);
+        String str = token.toString();
+        TokenType type = state == ACCEPT_SYMBOL ? st.find(str) : ACCEPTS[state - ACCEPT];
+        return new Lexeme(str, type);
+    }
 
-                        state = 12;
-                    }
-                    break;
+    private static void build() {
+        for (int c = 0; c < 256; c++) {
+            if (c == '_' || Character.isLetter(c))
+                CLASS[c] = C_LETTER;
+            else if (Character.isDigit(c))
+                CLASS[c] = C_DIGIT;
+        }
+        classify(C_SPACE, " \t\r");
+        classify(C_NEWLINE, "\n");
+        classify(C_HASH, "#");
+        classify(C_DOT, ".");
+        classify(C_EQUALS, "=");
+        classify(C_ANGLE, "<>");
+        classify(C_STAR, "*");
+        classify(C_BANG, "!");
+        classify(C_QUOTE, "'");
+        classify(C_SEMI, ";");
+        classify(C_SINGLE, ",+-%/[]()");
+
+        // Início de token.
+        otherwise(START, ACCEPT_INVALID | APPEND);
+        on(START, START, C_SPACE);
+        on(START, START | NEWLINE, C_NEWLINE);
+        on(START, COMMENT, C_HASH);
+        on(START, DOT | APPEND, C_DOT);
+        on(START, EQUALS | APPEND, C_EQUALS);
+        on(START, COMPARE | APPEND, C_ANGLE);
+        on(START, STAR | APPEND, C_STAR);
+        on(START, BANG | APPEND, C_BANG);
+        on(START, IDENTIFIER | APPEND, C_LETTER);
+        on(START, NUMBER | APPEND, C_DIGIT);
+        on(START, STRING, C_QUOTE);
+        on(START, ACCEPT_SYMBOL | APPEND, C_SEMI, C_SINGLE);
+        on(START, ACCEPT_EOF, C_EOF);
+
+        // Comentário até o fim da linha.
+        otherwise(COMMENT, COMMENT);
+        on(COMMENT, START | NEWLINE, C_NEWLINE);
+        on(COMMENT, ACCEPT_EOF, C_EOF);
+
+        // . .. ...
+        otherwise(DOT, ACCEPT_SYMBOL | UNGET);
+        on(DOT, DOT_DOT | APPEND, C_DOT);
+        otherwise(DOT_DOT, ACCEPT_SYMBOL | UNGET);
+        on(DOT_DOT, ACCEPT_SYMBOL | APPEND, C_DOT);
+
+        // = == ===, < <= > >=
+        otherwise(EQUALS, ACCEPT_SYMBOL | UNGET);
+        on(EQUALS, COMPARE | APPEND, C_EQUALS);
+        otherwise(COMPARE, ACCEPT_SYMBOL | UNGET);
+        on(COMPARE, ACCEPT_SYMBOL | APPEND, C_EQUALS);
+
+        // * **
+        otherwise(STAR, ACCEPT_SYMBOL | UNGET);
+        on(STAR, ACCEPT_SYMBOL | APPEND, C_STAR);
+
+        // != ; o "!" sozinho é inválido.
+        otherwise(BANG, ACCEPT_INVALID | UNGET);
+        on(BANG, ACCEPT_SYMBOL | APPEND, C_EQUALS);
+        on(BANG, ACCEPT_UNEXPECTED_EOF, C_EOF);
+
+        // Identificadores e palavras reservadas.
+        otherwise(IDENTIFIER, ACCEPT_SYMBOL | UNGET);
+        on(IDENTIFIER, IDENTIFIER | APPEND, C_LETTER, C_DIGIT);
+
+        otherwise(NUMBER, ACCEPT_INTEGER | UNGET);
+        on(NUMBER, NUMBER | APPEND, C_DIGIT);
+
+        // Strings não contam linhas e não podem conter ';'.
+        otherwise(STRING, STRING | APPEND);
+        on(STRING, ACCEPT_STRING, C_QUOTE);
+        on(STRING, ACCEPT_UNEXPECTED_EOF, C_SEMI, C_EOF);
+    }
 
-                case 7:
-                    if (c == '*') {
-                        lex.token += (char) c;
-                        state = 12;
-                    } else {
-                        if (c != -1)
-                            ungetc(c);
+    private static void classify(int cls, String chars) {
+        for (int i = 0; i < chars.length(); i++)
+            CLASS[chars.charAt(i)] = (byte) cls;
+    }
 
-                        state = 12;
-                    }
-                    break;
+    private static void otherwise(int state, int action) {
+        for (int cls = 0; cls < CLASSES; cls++)
+            TABLE[state * CLASSES + cls] = (short) action;
+    }
 
-                case 8:
-                    if (c == '=') {
-                        lex.token += (char) c;
-                        state = 12;
-                    } else {
-                        if (c == -1) {
-                            lex.type = TokenType.UNEXPECTED_EOF;
-                            state = 13;
-                        }
-                    }
-                    break;
+    private static void on(int state, int action, int... classes) {
+        for (int cls : classes)
+            TABLE[state * CLASSES + cls] = (short) action;
+    }
 
-                case 9:
-                    if (c == '_' || Character.isLetter(c) || Character.isDigit(c)) {
-                        lex.token += (char) c;
-                        state = 9;
-                    } else {
-                        if (c != -1)
-                            ungetc(c);
+    private int getc() {
+        if (pos < ascii) {
+            mark = pos;
+            return buf[pos++];
+        }
 
-                        state = 12;
-                    }
-                    break;
+        return decode();
+    }
 
-                case 10:
-                    if (Character.isDigit(c)) {
-                        lex.token += (char) c;
-                        state = 10;
-                    } else {
-                        if (c != -1)
-                            ungetc(c);
-
-                        lex.type = TokenType.INTEGER;
-                        state = 13;
-                    }
-                    break;
+    private int decode() {
+        if (pos == limit && !fill(0))
+            return -1;
+
+        int b0 = buf[pos] & 0xFF;
+        if (b0 < 0x80) {
+            // Início de outro trecho ASCII: acha o fim dele de oito em oito.
+            int i = pos;
+            while (i + 8 <= limit && ((long) LONGS.get(buf, i) & HIGH_BITS) == 0)
+                i += 8;
+            while (i < limit && buf[i] >= 0)
+                i++;
+
+            ascii = i;
+            mark = pos;
+            return buf[pos++];
+        }
 
-                case 11:
-                    if (c != '\'') {
-                        if (c == ';') {
-                            lex.type = TokenType.UNEXPECTED_EOF;
-                            state = 13;
-                        } else {
-                            lex.token += (char) c;
-                            state = 11;
-                        }
-                    } else {
-                        if (c == -1) {
-                            // ungetc(c, m_file);
-                            lex.type = TokenType.UNEXPECTED_EOF;
-                            state = 13;
-                        } else {
-                            // lex.token += (char)c;
-                            lex.type = TokenType.STRING;
-                            state = 13;
-                        }
-                    }
-                    break;
+        int need;
+        int min;
+        if (b0 >= 0xC2 && b0 <= 0xDF) {
+            need = 1;
+            min = 0x80;
+        } else if (b0 >= 0xE0 && b0 <= 0xEF) {
+            need = 2;
+            min = 0x800;
+        } else if (b0 >= 0xF0 && b0 <= 0xF4) {
+            need = 3;
+            min = 0x10000;
+        } else {
+            mark = pos++;
+            return REPLACEMENT;
+        }
 
-                default:
-                    assert (false);
-            }
+        // A sequência pode atravessar o fim do buffer.
+        if (limit - pos <= need)
+            fill(need + 1);
+
+        mark = pos;
+        int cp = b0 & (0x3F >> need);
+        int i = 1;
+        for (; i <= need && pos + i < limit; i++) {
+            int b = buf[pos + i] & 0xFF;
+            if ((b & 0xC0) != 0x80)
+                break;
+
+            cp = (cp << 6) | (b & 0x3F);
+            // Segundo byte fora da faixa: forma longa ou acima de U+10FFFF;
+            // o erro é só o primeiro byte.
+            if (i == 1 && !secondByteValid(b0, b))
+                break;
+        }
+
+        if (i <= need) {
+            // Sequência incompleta: um U+FFFD para o prefixo válido.
+            pos += i == 1 ? 1 : i;
+            return REPLACEMENT;
         }
 
-        if (state == 12)
-            lex.type = st.find(lex.token);
+        // Surrogates valem um U+FFFD só, como no decodificador do JDK.
+        pos += need + 1;
+        return cp < min || (cp >= 0xD800 && cp <= 0xDFFF) ? REPLACEMENT : cp;
+    }
 
-        return lex;
+    private static boolean secondByteValid(int b0, int b1) {
+        switch (b0) {
+            case 0xE0:
+                return b1 >= 0xA0;
+            case 0xF0:
+                return b1 >= 0x90;
+            case 0xF4:
+                return b1 <= 0x8F;
+            default:
+                return true;
+        }
     }
 
-    private int getc() {
+    // Move o que resta para o início e lê até ter ao menos `want` bytes (ou
+    // até o fim da entrada). Devolve false se não há nada para ler.
+    private boolean fill(int want) {
+        int rest = limit - pos;
+        System.arraycopy(buf, pos, buf, 0, rest);
+        pos = 0;
+        limit = rest;
+        ascii = 0;
+
         try {
-            return input.read();
+            while (limit < want || limit == 0) {
+                int n = input.read(buf, limit, buf.length - limit);
+                if (n <= 0)
+                    break;
+
+                limit += n;
+            }
         } catch (Exception e) {
             throw new LexicalException("Unable to read file");
         }
-    }
 
-    private void ungetc(int c) {
-        if (c != -1) {
-            try {
-                input.unread(c);
-            } catch (Exception e) {
-                throw new LexicalException("Unable to ungetc");
-            }
-        }
+        return limit > 0;
     }
+
 }
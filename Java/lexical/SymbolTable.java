@@ -5,10 +5,20 @@ import java.util.HashMap;
 
 public class SymbolTable {
 
+    // A tabela é a mesma para todos os analisadores: construída uma única vez,
+    // no primeiro uso, e compartilhada.
+    private static class Symbols {
+        static final Map<String, TokenType> st = build();
+    }
+
     private Map<String, TokenType> st;
 
     public SymbolTable() {
-        st = new HashMap<String, TokenType>();
+        st = Symbols.st;
+    }
+
+    private static Map<String, TokenType> build() {
+        Map<String, TokenType> st = new HashMap<String, TokenType>(128);
 
         // SYMBOLS
         st.put(";", TokenType.SEMI_COLON);
@@ -59,6 +69,8 @@ public class SymbolTable {
         st.put("length", TokenType.LENGTH);
         st.put("to_i", TokenType.TO_INT);
         st.put("to_s", TokenType.TO_STR);
+
+        return st;
     }
 
     public boolean contains(String token) {
@@ -66,7 +78,7 @@ public class SymbolTable {
     }
 
     public TokenType find(String token) {
-        return this.contains(token) ?
-            st.get(token) : TokenType.ID;
+        TokenType type = st.get(token);
+        return type != null ? type : TokenType.ID;
     }
 }
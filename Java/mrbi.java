@@ -1,53 +1,248 @@
 
-import lexical.Lexeme;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+
+import compiler.JarCompiler;
+import daemon.Daemon;
+import daemon.Protocol;
 import lexical.LexicalAnalysis;
-import lexical.TokenType;
+import syntatic.Liveness;
 import syntatic.SyntaticAnalysis;
+import syntatic.SyntaticException;
+import interpreter.command.BlocksCommand;
 import interpreter.command.Command;
+import interpreter.util.Governor;
+import interpreter.util.InterpreterException;
+import interpreter.util.MemorySnapshot;
+import interpreter.util.Profiler;
+import interpreter.util.RandomSource;
+import interpreter.util.RuntimeMetrics;
+import interpreter.value.OffHeapInts;
 
 public class mrbi {
 
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java mrbi [miniRuby file]");
-            return;
+        String file = null;
+        String profileOut = null;
+        boolean jmx = false;
+        boolean time = false;
+        boolean stream = false;
+        String snapshotOut = null;
+        String restoreIn = null;
+        String daemonSocket = null;
+        String compileOut = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--profile")) {
+                    profileOut = "mrbi.collapsed";
+                } else if (arg.startsWith("--profile=")) {
+                    profileOut = arg.substring("--profile=".length());
+                } else if (arg.startsWith("--max-steps=")) {
+                    Governor.setMaxSteps(Long.parseLong(arg.substring("--max-steps=".length())));
+                } else if (arg.startsWith("--max-cells=")) {
+                    Governor.setMaxCells(Long.parseLong(arg.substring("--max-cells=".length())));
+                } else if (arg.startsWith("--timeout=")) {
+                    Governor.setTimeout(Long.parseLong(arg.substring("--timeout=".length())));
+                } else if (arg.startsWith("--seed=")) {
+                    RandomSource.setSeed(Long.parseLong(arg.substring("--seed=".length())));
+                } else if (arg.startsWith("--offheap=")) {
+                    OffHeapInts.setThreshold(Integer.parseInt(arg.substring("--offheap=".length())));
+                } else if (arg.startsWith("--spill=")) {
+                    OffHeapInts.setSpill(Paths.get(arg.substring("--spill=".length())));
+                } else if (arg.startsWith("--snapshot=")) {
+                    snapshotOut = arg.substring("--snapshot=".length());
+                } else if (arg.startsWith("--restore=")) {
+                    restoreIn = arg.substring("--restore=".length());
+                } else if (arg.equals("--stream")) {
+                    stream = true;
+                } else if (arg.equals("--time")) {
+                    time = true;
+                } else if (arg.equals("--daemon")) {
+                    daemonSocket = Protocol.defaultSocket().toString();
+                } else if (arg.startsWith("--daemon=")) {
+                    daemonSocket = arg.substring("--daemon=".length());
+                } else if (arg.equals("--jmx")) {
+                    jmx = true;
+                } else if (arg.equals("--compile") && i + 1 < args.length) {
+                    compileOut = args[++i];
+                } else if (arg.startsWith("--compile=")) {
+                    compileOut = arg.substring("--compile=".length());
+                } else if (file == null && !arg.startsWith("--")) {
+                    file = arg;
+                } else {
+                    file = null;
+                    break;
+                }
+            }
+        } catch (NumberFormatException e) {
+            file = null;
         }
 
-        try (LexicalAnalysis l = new LexicalAnalysis(args[0])) {
+        if (file == null && daemonSocket == null) {
+            System.out.println("Usage: java mrbi [--profile[=collapsed file]] [--jmx] [--time] [--stream]\n"
+                    + "                [--max-steps=N] [--max-cells=N] [--timeout=ms]\n"
+                    + "                [--offheap=N] [--spill=dir] [--seed=N]\n"
+                    + "                [--restore=snapshot] [--snapshot=snapshot] [miniRuby file]\n"
+                    + "       java mrbi --compile out.jar [miniRuby file]\n"
+                    + "       java mrbi [--max-steps=N] [--max-cells=N] [--timeout=ms] --daemon[=socket]\n"
+                    + "--max-cells caps the array elements and string characters allocated over the whole run.");
+            return;
+        }
 
-            // O código a seguir é dado para testar o interpretador. // TOdDO:
-            // descomentar depois que o analisador léxico estiver OK.
-            // SyntaticAnalysis s = new SyntaticAnalysis(l);
-            // Command c = s.start();
-            // c.execute();
+        if (profileOut != null)
+            Profiler.enable();
 
-            // O código a seguir é usado apenas para testar o analisador léxico.
-            // TOfDO: depois de pronto, comentar o código abaixo
+        if (jmx) {
+            try {
+                RuntimeMetrics.register();
+            } catch (Exception e) {
+                System.err.println("Unable to register JMX metrics: " + e.getMessage());
+            }
+        }
 
-            Lexeme lex = l.nextToken();
-            while (checkType(lex.type)) {
-                System.out.printf("(\"%s\", %s)\n", lex.token, lex.type);
-                lex = l.nextToken();
+        if (file == null) {
+            try {
+                new Daemon(Paths.get(daemonSocket)).serve();
+            } catch (Exception e) {
+                System.err.println("Internal error: " + e.getMessage());
+                System.exit(1);
             }
+            return;
+        }
 
-            switch (lex.type) {
-                case INVALID_TOKEN:
-                    System.out.printf("%02d: Lexema inválido [%s]\n", l.getLine(), lex.token);
-                    break;
-                case UNEXPECTED_EOF:
-                    System.out.printf("%02d: Fim de arquivo inesperado\n", l.getLine());
-                    break;
-                default:
-                    System.out.printf("(\"%s\", %s)\n", lex.token, lex.type);
-                    break;
+        if (compileOut != null) {
+            compile(file, compileOut);
+            return;
+        }
+
+        long mainStart = System.currentTimeMillis();
+        long parseNanos = -1;
+        long execNanos = 0;
+        LexicalAnalysis lexer = null;
+        int status = 0;
+
+        try (LexicalAnalysis l = new LexicalAnalysis(file)) {
+            lexer = l;
+            l.setTimed(time);
+
+            if (restoreIn != null)
+                MemorySnapshot.restore(Paths.get(restoreIn));
+
+            long start = System.nanoTime();
+            SyntaticAnalysis s = new SyntaticAnalysis(l);
+
+            if (stream) {
+                // Cada comando de nível mais alto roda assim que é lido e
+                // depois é descartado.
+                Command c;
+                while ((c = s.next()) != null) {
+                    long t = time ? System.nanoTime() : 0;
+
+                    if (Profiler.isEnabled())
+                        Profiler.execute(c);
+                    else
+                        c.execute();
+
+                    if (time)
+                        execNanos += System.nanoTime() - t;
+                }
+                parseNanos = System.nanoTime() - start - execNanos;
+            } else {
+                BlocksCommand c = s.start();
+
+                // Um snapshot precisa de todas as variáveis no fim.
+                if (snapshotOut == null)
+                    Liveness.clearDeadVariables(c);
+
+                parseNanos = System.nanoTime() - start;
+
+                long t = System.nanoTime();
+                c.execute();
+                execNanos = System.nanoTime() - t;
             }
 
+            if (snapshotOut != null)
+                MemorySnapshot.save(Paths.get(snapshotOut));
+        } catch (SyntaticException e) {
+            System.out.printf("%02d: %s\n", e.getLine(), e.getMessage());
+            status = 1;
+        } catch (InterpreterException e) {
+            System.out.printf("%02d: %s\n", e.getLine(), e.getMessage());
+            status = 1;
+        } catch (IOException e) {
+            // Só --restore e --snapshot fazem E/S aqui.
+            System.err.println("Snapshot error: " + e.getMessage());
+            status = 1;
+        } catch (Exception e) {
+            System.err.println("Internal error: " + e.getMessage());
+        } finally {
+            if (profileOut != null)
+                writeProfile(profileOut);
+
+            if (time && parseNanos >= 0)
+                writeTimes(mainStart, parseNanos, lexer.getNanos(), execNanos);
+        }
+
+        if (status != 0)
+            System.exit(status);
+    }
+
+    // Gera um jar executável em vez de executar o programa.
+    private static void compile(String file, String out) {
+        int status = 0;
+
+        try (LexicalAnalysis l = new LexicalAnalysis(file)) {
+            BlocksCommand c = new SyntaticAnalysis(l).start();
+            JarCompiler.compile(c, Paths.get(file).getFileName().toString(), Paths.get(out));
+        } catch (SyntaticException e) {
+            System.out.printf("%02d: %s\n", e.getLine(), e.getMessage());
+            status = 1;
+        } catch (IOException e) {
+            System.err.println("Unable to compile: " + e.getMessage());
+            status = 1;
         } catch (Exception e) {
             System.err.println("Internal error: " + e.getMessage());
+            status = 1;
         }
+
+        if (status != 0)
+            System.exit(status);
     }
 
-    private static boolean checkType(TokenType type) {
-        return !(type == TokenType.END_OF_FILE || type == TokenType.INVALID_TOKEN || type == TokenType.UNEXPECTED_EOF);
+    private static void writeTimes(long mainStart, long parse, long lex, long exec) {
+        System.out.flush();
+
+        // O lançador bin/mrbi informa quando foi chamado, o que inclui a
+        // criação do processo; sem ele, conta a partir da criação da JVM.
+        long launch;
+        String prop = System.getProperty("mrbi.launchMillis");
+        if (prop != null)
+            launch = Long.parseLong(prop);
+        else
+            launch = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        long startup = mainStart - launch;
+
+        System.err.println();
+        System.err.printf("jvm startup %10d ms\n", startup);
+        System.err.printf("lexing      %10.3f ms\n", lex / 1e6);
+        System.err.printf("parsing     %10.3f ms\n", (parse - lex) / 1e6);
+        System.err.printf("execution   %10.3f ms\n", exec / 1e6);
     }
+
+    private static void writeProfile(String out) {
+        System.out.flush();
+        Profiler.report(System.err, 20);
+
+        try {
+            Profiler.writeCollapsed(Paths.get(out));
+            System.err.println("\nCollapsed stacks written to " + out);
+        } catch (Exception e) {
+            System.err.println("Unable to write profile: " + e.getMessage());
+        }
+    }
+
 }
@@ -0,0 +1,86 @@
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import daemon.Protocol;
+
+public class mrbic {
+
+    public static void main(String[] args) {
+        Path socket = Protocol.defaultSocket();
+        byte kind = Protocol.SOURCE_PATH;
+        String source = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-s") && i + 1 < args.length) {
+                socket = Paths.get(args[++i]);
+            } else if (args[i].equals("-e") && i + 1 < args.length) {
+                kind = Protocol.SOURCE_INLINE;
+                source = args[++i];
+            } else if (source == null) {
+                // O daemon pode estar em outro diretório.
+                source = Paths.get(args[i]).toAbsolutePath().toString();
+            } else {
+                source = null;
+                break;
+            }
+        }
+
+        if (source == null) {
+            System.out.println("Usage: java mrbic [-s socket] (-e code | [miniRuby file])");
+            return;
+        }
+
+        System.exit(run(socket, kind, source));
+    }
+
+    private static int run(Path socket, byte kind, String source) {
+        try (SocketChannel ch = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            ch.connect(UnixDomainSocketAddress.of(socket));
+
+            byte[] src = source.getBytes(StandardCharsets.UTF_8);
+
+            ByteBuffer req = ByteBuffer.allocate(1 + 4 + src.length);
+            req.put(kind).putInt(src.length).put(src).flip();
+            Protocol.writeFully(ch, req);
+
+            while (true) {
+                ByteBuffer header = Protocol.readFully(ch, 5);
+                byte type = header.get();
+                ByteBuffer data = Protocol.readFully(ch, header.getInt());
+
+                if (type == Protocol.STDIN) {
+                    System.out.flush();
+                    sendStdin(ch, data.getInt());
+                } else if (type == Protocol.EXIT) {
+                    System.out.flush();
+                    return data.getInt();
+                } else if (type == Protocol.STDERR) {
+                    System.err.write(data.array(), 0, data.limit());
+                    System.err.flush();
+                } else {
+                    System.out.write(data.array(), 0, data.limit());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Unable to reach mrbi daemon at " + socket + ": " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private static void sendStdin(SocketChannel ch, int want) throws IOException {
+        byte[] buf = new byte[Math.max(1, Math.min(want, 65536))];
+        int n = Math.max(System.in.read(buf), 0);
+
+        ByteBuffer block = ByteBuffer.allocate(4 + n);
+        block.putInt(n).put(buf, 0, n).flip();
+        Protocol.writeFully(ch, block);
+    }
+
+}
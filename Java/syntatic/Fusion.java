@@ -0,0 +1,83 @@
+package syntatic;
+
+import java.util.List;
+
+import interpreter.command.AppendCommand;
+import interpreter.command.AssignCommand;
+import interpreter.command.Command;
+import interpreter.command.IncrementCommand;
+import interpreter.command.IndexedLoadCommand;
+import interpreter.expr.AccessExpr;
+import interpreter.expr.BinaryExpr;
+import interpreter.expr.BinaryOp;
+import interpreter.expr.BoolExpr;
+import interpreter.expr.ConstExpr;
+import interpreter.expr.Expr;
+import interpreter.expr.RelOp;
+import interpreter.expr.SetExpr;
+import interpreter.expr.SingleBoolExpr;
+import interpreter.expr.Variable;
+import interpreter.expr.VariableCompareBoolExpr;
+import interpreter.value.IntegerValue;
+
+// Troca as formas mais comuns de comando por nós fundidos. Cada nó fundido
+// estende o genérico e recorre a ele, então só o despacho muda.
+class Fusion {
+
+    static Command assign(int line, List<SetExpr> left, List<Expr> right) {
+        if (left.size() == 1 && right.size() == 1 && left.get(0) instanceof Variable) {
+            Variable target = (Variable) left.get(0);
+            String name = target.getName();
+            int slot = target.getSlot();
+            Expr value = right.get(0);
+
+            // v = v + c, v = c + v, v = v - c
+            if (value instanceof BinaryExpr) {
+                BinaryExpr b = (BinaryExpr) value;
+                if (b.getOp() == BinaryOp.AddOp && isVariable(b.getLeft(), name) && isInteger(b.getRight()))
+                    return new IncrementCommand(line, left, right, slot, integer(b.getRight()));
+
+                if (b.getOp() == BinaryOp.AddOp && isInteger(b.getLeft()) && isVariable(b.getRight(), name))
+                    return new IncrementCommand(line, left, right, slot, integer(b.getLeft()));
+
+                if (b.getOp() == BinaryOp.SubOp && isVariable(b.getLeft(), name) && isInteger(b.getRight()))
+                    return new IncrementCommand(line, left, right, slot, -integer(b.getRight()));
+
+                // s = s + e
+                if (b.getOp() == BinaryOp.AddOp && isVariable(b.getLeft(), name))
+                    return new AppendCommand(line, left, right, slot, b.getRight());
+            }
+
+            // x = a[i]
+            if (value instanceof AccessExpr) {
+                AccessExpr a = (AccessExpr) value;
+                if (a.getBase() instanceof Variable
+                        && (a.getIndex() instanceof Variable || a.getIndex() instanceof ConstExpr))
+                    return new IndexedLoadCommand(line, left, right, slot,
+                            ((Variable) a.getBase()).getSlot(), a.getIndex());
+            }
+        }
+
+        return new AssignCommand(line, left, right);
+    }
+
+    static BoolExpr compare(int line, Expr left, RelOp op, Expr right) {
+        if (left instanceof Variable && (right instanceof Variable || isInteger(right)))
+            return new VariableCompareBoolExpr(line, (Variable) left, op, right);
+
+        return new SingleBoolExpr(line, left, op, right);
+    }
+
+    private static boolean isVariable(Expr e, String name) {
+        return e instanceof Variable && ((Variable) e).getName().equals(name);
+    }
+
+    private static boolean isInteger(Expr e) {
+        return e instanceof ConstExpr && ((ConstExpr) e).getValue() instanceof IntegerValue;
+    }
+
+    private static int integer(Expr e) {
+        return ((IntegerValue) ((ConstExpr) e).getValue()).value();
+    }
+
+}
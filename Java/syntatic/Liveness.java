@@ -0,0 +1,249 @@
+package syntatic;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import interpreter.command.AssignCommand;
+import interpreter.command.BlocksCommand;
+import interpreter.command.ClearCommand;
+import interpreter.command.Command;
+import interpreter.command.ForCommand;
+import interpreter.command.IfCommand;
+import interpreter.command.OutputCommand;
+import interpreter.command.SwitchCommand;
+import interpreter.command.UnlessCommand;
+import interpreter.command.UntilCommand;
+import interpreter.command.WhileCommand;
+import interpreter.expr.AccessExpr;
+import interpreter.expr.ArrayExpr;
+import interpreter.expr.BinaryExpr;
+import interpreter.expr.BoolExpr;
+import interpreter.expr.CompositeBoolExpr;
+import interpreter.expr.ConstExpr;
+import interpreter.expr.ConvExpr;
+import interpreter.expr.Expr;
+import interpreter.expr.FunctionExpr;
+import interpreter.expr.InputExpr;
+import interpreter.expr.NotBoolExpr;
+import interpreter.expr.SetExpr;
+import interpreter.expr.SingleBoolExpr;
+import interpreter.expr.Variable;
+
+// Análise de vivacidade por posição de variável: depois do último uso de
+// uma variável entra um ClearCommand. Dentro de laços não, pois rodaria a
+// cada iteração; o que morre no laço é limpo logo depois dele. Supõe que
+// nada lê a memória no fim, então não vale com --snapshot.
+public class Liveness {
+
+    private Liveness() {
+    }
+
+    public static void clearDeadVariables(BlocksCommand program) {
+        live(program, new BitSet(), true);
+    }
+
+    // Variáveis vivas antes de cmd, dadas as vivas depois dele. O conjunto
+    // out é reaproveitado para o resultado; quem ainda precisa dele passa
+    // uma cópia. Com insert, também insere as limpezas nos blocos
+    // alcançados.
+    private static BitSet live(Command cmd, BitSet out, boolean insert) {
+        if (cmd instanceof BlocksCommand)
+            return block((BlocksCommand) cmd, out, insert);
+
+        BitSet in = out;
+        if (cmd instanceof AssignCommand) {
+            AssignCommand a = (AssignCommand) cmd;
+            for (SetExpr target : a.getLeft()) {
+                if (target instanceof Variable)
+                    in.clear(((Variable) target).getSlot());
+            }
+            // Atribuir a um elemento lê o arranjo e o índice.
+            for (SetExpr target : a.getLeft()) {
+                if (!(target instanceof Variable))
+                    uses(target, in);
+            }
+            for (Expr e : a.getRight())
+                uses(e, in);
+        } else if (cmd instanceof OutputCommand) {
+            uses(((OutputCommand) cmd).getExpr(), in);
+        } else if (cmd instanceof IfCommand) {
+            IfCommand c = (IfCommand) cmd;
+            in = branches(c.getCond(), c.getThen(), c.getElse(), out, insert);
+        } else if (cmd instanceof UnlessCommand) {
+            UnlessCommand c = (UnlessCommand) cmd;
+            in = branches(c.getCond(), c.getThen(), c.getElse(), out, insert);
+        } else if (cmd instanceof SwitchCommand) {
+            in = live(((SwitchCommand) cmd).getChain(), out, insert);
+        } else if (cmd instanceof WhileCommand) {
+            WhileCommand c = (WhileCommand) cmd;
+            in = loop(c.getCond(), c.getCommands(), out);
+        } else if (cmd instanceof UntilCommand) {
+            UntilCommand c = (UntilCommand) cmd;
+            in = loop(c.getCond(), c.getCommands(), out);
+        } else if (cmd instanceof ClearCommand) {
+            // Já inserido num ramo analisado antes; não lê nada.
+        } else if (cmd instanceof ForCommand) {
+            ForCommand c = (ForCommand) cmd;
+            int var = c.getVariable().getSlot();
+
+            // Se o laço não executar nenhuma vez, a variável não é escrita:
+            // por isso ela só sai do que vem do corpo.
+            BitSet head = (BitSet) out.clone();
+            while (true) {
+                BitSet next = live(c.getCommands(), (BitSet) head.clone(), false);
+                next.clear(var);
+                next.or(out);
+                if (next.equals(head))
+                    break;
+                head = next;
+            }
+
+            in = head;
+            uses(c.getExpr(), in);
+        } else {
+            throw new IllegalArgumentException("Unknown command " + cmd.getClass().getSimpleName());
+        }
+
+        return in;
+    }
+
+    private static BitSet branches(BoolExpr cond, Command thenCmds, Command elseCmds, BitSet out, boolean insert) {
+        BitSet in = live(thenCmds, (BitSet) out.clone(), insert);
+        in.or(elseCmds != null ? live(elseCmds, out, insert) : out);
+        uses(cond, in);
+        return in;
+    }
+
+    // A condição roda antes de cada volta e na saída.
+    private static BitSet loop(BoolExpr cond, Command body, BitSet out) {
+        BitSet head = (BitSet) out.clone();
+        uses(cond, head);
+        while (true) {
+            BitSet next = live(body, (BitSet) head.clone(), false);
+            next.or(out);
+            uses(cond, next);
+            if (next.equals(head))
+                return head;
+            head = next;
+        }
+    }
+
+    // Na volta para trás, o que cada comando menciona e não está vivo
+    // depois dele morre ali; só essas posições ficam guardadas até a
+    // inserção das limpezas.
+    private static BitSet block(BlocksCommand b, BitSet out, boolean insert) {
+        List<Command> cmds = b.getCommands();
+        int[][] dead = insert ? new int[cmds.size()][] : null;
+        BitSet live = out;
+        for (int i = cmds.size() - 1; i >= 0; i--) {
+            if (insert) {
+                BitSet d = new BitSet();
+                mentions(cmds.get(i), d);
+                d.andNot(live);
+                if (!d.isEmpty())
+                    dead[i] = d.stream().toArray();
+            }
+
+            live = live(cmds.get(i), live, insert);
+        }
+
+        if (insert) {
+            List<Command> result = new ArrayList<Command>(cmds.size());
+            for (int i = 0; i < cmds.size(); i++) {
+                Command cmd = cmds.get(i);
+                result.add(cmd);
+                if (dead[i] != null)
+                    result.add(new ClearCommand(cmd.getLine(), dead[i]));
+            }
+
+            cmds.clear();
+            cmds.addAll(result);
+        }
+
+        return live;
+    }
+
+    // Toda variável lida ou escrita em cmd, em qualquer profundidade.
+    private static void mentions(Command cmd, BitSet s) {
+        if (cmd == null || cmd instanceof ClearCommand)
+            return;
+
+        if (cmd instanceof BlocksCommand) {
+            for (Command c : ((BlocksCommand) cmd).getCommands())
+                mentions(c, s);
+        } else if (cmd instanceof AssignCommand) {
+            AssignCommand a = (AssignCommand) cmd;
+            for (SetExpr target : a.getLeft())
+                uses(target, s);
+            for (Expr e : a.getRight())
+                uses(e, s);
+        } else if (cmd instanceof OutputCommand) {
+            uses(((OutputCommand) cmd).getExpr(), s);
+        } else if (cmd instanceof IfCommand) {
+            IfCommand c = (IfCommand) cmd;
+            uses(c.getCond(), s);
+            mentions(c.getThen(), s);
+            mentions(c.getElse(), s);
+        } else if (cmd instanceof UnlessCommand) {
+            UnlessCommand c = (UnlessCommand) cmd;
+            uses(c.getCond(), s);
+            mentions(c.getThen(), s);
+            mentions(c.getElse(), s);
+        } else if (cmd instanceof SwitchCommand) {
+            mentions(((SwitchCommand) cmd).getChain(), s);
+        } else if (cmd instanceof WhileCommand) {
+            uses(((WhileCommand) cmd).getCond(), s);
+            mentions(((WhileCommand) cmd).getCommands(), s);
+        } else if (cmd instanceof UntilCommand) {
+            uses(((UntilCommand) cmd).getCond(), s);
+            mentions(((UntilCommand) cmd).getCommands(), s);
+        } else if (cmd instanceof ForCommand) {
+            ForCommand c = (ForCommand) cmd;
+            s.set(c.getVariable().getSlot());
+            uses(c.getExpr(), s);
+            mentions(c.getCommands(), s);
+        } else {
+            throw new IllegalArgumentException("Unknown command " + cmd.getClass().getSimpleName());
+        }
+    }
+
+    private static void uses(Expr e, BitSet s) {
+        if (e == null || e instanceof ConstExpr || e instanceof InputExpr)
+            return;
+
+        if (e instanceof Variable) {
+            s.set(((Variable) e).getSlot());
+        } else if (e instanceof AccessExpr) {
+            uses(((AccessExpr) e).getBase(), s);
+            uses(((AccessExpr) e).getIndex(), s);
+        } else if (e instanceof BinaryExpr) {
+            uses(((BinaryExpr) e).getLeft(), s);
+            uses(((BinaryExpr) e).getRight(), s);
+        } else if (e instanceof ConvExpr) {
+            uses(((ConvExpr) e).getExpr(), s);
+        } else if (e instanceof FunctionExpr) {
+            uses(((FunctionExpr) e).getExpr(), s);
+        } else if (e instanceof ArrayExpr) {
+            for (Expr item : ((ArrayExpr) e).getExprs())
+                uses(item, s);
+        } else {
+            throw new IllegalArgumentException("Unknown expression " + e.getClass().getSimpleName());
+        }
+    }
+
+    private static void uses(BoolExpr e, BitSet s) {
+        if (e instanceof SingleBoolExpr) {
+            uses(((SingleBoolExpr) e).getLeft(), s);
+            uses(((SingleBoolExpr) e).getRight(), s);
+        } else if (e instanceof CompositeBoolExpr) {
+            for (BoolExpr clause : ((CompositeBoolExpr) e).getClauses())
+                uses(clause, s);
+        } else if (e instanceof NotBoolExpr) {
+            uses(((NotBoolExpr) e).getExpr(), s);
+        } else {
+            throw new IllegalArgumentException("Unknown expression " + e.getClass().getSimpleName());
+        }
+    }
+
+}
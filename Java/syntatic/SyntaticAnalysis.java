@@ -1,12 +1,41 @@
 package syntatic;
 
-import interpreter.command.AssignCommand;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
 import interpreter.command.BlocksCommand;
 import interpreter.command.Command;
+import interpreter.command.ForCommand;
 import interpreter.command.IfCommand;
+import interpreter.command.OutputCommand;
+import interpreter.command.OutputOp;
+import interpreter.command.SwitchCommand;
+import interpreter.command.UnlessCommand;
+import interpreter.command.UntilCommand;
 import interpreter.command.WhileCommand;
+import interpreter.expr.AccessExpr;
+import interpreter.expr.ArrayExpr;
+import interpreter.expr.BinaryExpr;
+import interpreter.expr.BinaryOp;
 import interpreter.expr.BoolExpr;
+import interpreter.expr.BoolOp;
+import interpreter.expr.CompositeBoolExpr;
+import interpreter.expr.ConstExpr;
+import interpreter.expr.ConvExpr;
+import interpreter.expr.ConvOp;
+import interpreter.expr.Expr;
+import interpreter.expr.FunctionExpr;
+import interpreter.expr.FunctionOp;
+import interpreter.expr.InputExpr;
+import interpreter.expr.InputOp;
+import interpreter.expr.NotBoolExpr;
+import interpreter.expr.RelOp;
+import interpreter.expr.SetExpr;
+import interpreter.expr.Variable;
+import interpreter.value.BigIntegerValue;
 import interpreter.value.StringValue;
+import interpreter.value.Value;
 import lexical.Lexeme;
 import lexical.LexicalAnalysis;
 import lexical.LexicalException;
@@ -28,13 +57,22 @@ public class SyntaticAnalysis {
         return cmds;
     }
 
+    // Alternativa a start() para execução em fluxo: devolve o próximo
+    // comando de nível mais alto assim que ele é reconhecido, ou null no fim
+    // do arquivo. Nada além do comando corrente é mantido em memória.
+    public Command next() throws LexicalException {
+        if (isCmdStart())
+            return procCmd();
+
+        eat(TokenType.END_OF_FILE);
+        return null;
+    }
+
     private void advance() throws LexicalException {
-        System.out.println("Advanced (\"" + current.token + "\", " + current.type + ")");
         current = lex.nextToken();
     }
 
     private void eat(TokenType type) throws LexicalException {
-        System.out.println("Expected (..., " + type + "), found (\"" + current.token + "\", " + current.type + ")");
         if (type == current.type) {
             current = lex.nextToken();
         } else {
@@ -43,107 +81,131 @@ public class SyntaticAnalysis {
     }
 
     private void showError() {
-        System.out.printf("%02d: ", lex.getLine());
-
         switch (current.type) {
             case INVALID_TOKEN:
-                System.out.printf("Lexema inválido [%s]\n", current.token);
-                break;
+                throw new SyntaticException(lex.getLine(), "Lexema inválido [" + current.token + "]");
             case UNEXPECTED_EOF:
             case END_OF_FILE:
-                System.out.printf("Fim de arquivo inesperado\n");
-                break;
+                throw new SyntaticException(lex.getLine(), "Fim de arquivo inesperado");
             default:
-                System.out.printf("Lexema não esperado [%s]\n", current.token);
-                break;
+                throw new SyntaticException(lex.getLine(), "Lexema não esperado [" + current.token + "]");
         }
+    }
 
-        System.exit(1);
+    private boolean isCmdStart() {
+        return current.type == TokenType.IF || current.type == TokenType.UNLESS || current.type == TokenType.WHILE
+                || current.type == TokenType.UNTIL || current.type == TokenType.FOR || current.type == TokenType.PUTS
+                || current.type == TokenType.PRINT || current.type == TokenType.ID
+                || current.type == TokenType.OPEN_PAR;
+    }
+
+    private boolean isExprStart() {
+        return current.type == TokenType.ADD || current.type == TokenType.SUB || current.type == TokenType.INTEGER
+                || current.type == TokenType.STRING || current.type == TokenType.OPEN_BRA
+                || current.type == TokenType.GETS || current.type == TokenType.RAND || current.type == TokenType.ID
+                || current.type == TokenType.OPEN_PAR;
     }
 
     // <code> ::= { <cmd> }
     private BlocksCommand procCode() throws LexicalException {
+        BlocksCommand cmds = new BlocksCommand(lex.getLine());
 
-        while (current.type == TokenType.IF || current.type == TokenType.UNLESS || current.type == TokenType.WHILE
-                || current.type == TokenType.UNTIL || current.type == TokenType.FOR || current.type == TokenType.PUTS
-                || current.type == TokenType.PRINT || current.type == TokenType.ID
-                || current.type == TokenType.OPEN_PAR) {
-            return procCmd();
+        while (isCmdStart()) {
+            Command cmd = procCmd();
+            cmds.addCommand(cmd);
         }
+
+        return cmds;
     }
 
     // <cmd> ::= <if> | <unless> | <while> | <until> | <for> | <output> | <assign>
-    private BlocksCommand procCmd() throws LexicalException {
+    private Command procCmd() throws LexicalException {
+        Command cmd = null;
 
         if (current.type == TokenType.IF)
-            procIf();
+            cmd = procIf();
 
         else if (current.type == TokenType.UNLESS)
-            procUnless();
+            cmd = procUnless();
 
         else if (current.type == TokenType.WHILE)
-            procWhile();
+            cmd = procWhile();
 
         else if (current.type == TokenType.UNTIL)
-            procUntil();
+            cmd = procUntil();
 
         else if (current.type == TokenType.FOR)
-            procFor();
+            cmd = procFor();
 
         else if (current.type == TokenType.PUTS || current.type == TokenType.PRINT)
-            procOutput();
+            cmd = procOutput();
         else if (current.type == TokenType.ID || current.type == TokenType.OPEN_PAR)
-            procAssign();
+            cmd = procAssign();
         else
             showError();
+
+        return cmd;
     }
 
     // <if> ::= if <boolexpr> [ then ] <code> { elsif <boolexpr> [ then ] <code> } [
     // else <code> ] end
-    private IfCommand procIf() throws LexicalException {
+    private Command procIf() throws LexicalException {
         eat(TokenType.IF);
         int line = lex.getLine();
         BoolExpr cond = procBoolExpr();
-        // cade cmd?
         if (current.type == TokenType.THEN)
             advance();
 
-        procCode();
+        Command thenCmds = procCode();
+        IfCommand icmd = new IfCommand(line, cond, thenCmds);
 
+        // Cada elsif vira um IfCommand aninhado no else do anterior.
+        IfCommand last = icmd;
         while (current.type == TokenType.ELSIF) {
             advance();
-            procBoolExpr();
+            line = lex.getLine();
+            cond = procBoolExpr();
             if (current.type == TokenType.THEN)
                 advance();
-            procCode();
+            thenCmds = procCode();
+
+            IfCommand elsif = new IfCommand(line, cond, thenCmds);
+            last.setElseCommands(elsif);
+            last = elsif;
         }
 
         if (current.type == TokenType.ELSE) {
             advance();
-            procCode();
+            Command elseCmds = procCode();
+            last.setElseCommands(elseCmds);
         }
 
         eat(TokenType.END);
 
-        return new IfCommand();
+        // Cadeias longas sobre uma mesma variável viram tabela de desvio.
+        return SwitchCommand.lower(icmd);
     }
 
     // <unless> ::= unless <boolexpr> [ then ] <code> [ else <code> ] end
-    private void procUnless() throws LexicalException {
+    private UnlessCommand procUnless() throws LexicalException {
         eat(TokenType.UNLESS);
-        procBoolExpr();
+        int line = lex.getLine();
+        BoolExpr cond = procBoolExpr();
 
         if (current.type == TokenType.THEN)
             advance();
 
-        procCode();
+        Command thenCmds = procCode();
+        Command elseCmds = null;
 
         if (current.type == TokenType.ELSE) {
             advance();
-            procCode();
+            elseCmds = procCode();
         }
 
         eat(TokenType.END);
+
+        return new UnlessCommand(line, cond, thenCmds, elseCmds);
     }
 
     // <while> ::= while <boolexpr> [ do ] <code> end
@@ -164,131 +226,191 @@ public class SyntaticAnalysis {
     }
 
     // <until> ::= until <boolexpr> [ do ] <code> end
-    private void procUntil() throws LexicalException {
+    private UntilCommand procUntil() throws LexicalException {
         eat(TokenType.UNTIL);
-        procBoolExpr();
+        int line = lex.getLine();
+
+        BoolExpr cond = procBoolExpr();
 
         if (current.type == TokenType.DO)
             advance();
 
-        procCode();
+        BlocksCommand cmd = procCode();
         eat(TokenType.END);
+
+        UntilCommand ucmd = new UntilCommand(line, cond, cmd);
+        return ucmd;
     }
 
     // <for> ::= for <id> in <expr> [ do ] <code> end
-    private void procFor() throws LexicalException {
+    private ForCommand procFor() throws LexicalException {
         eat(TokenType.FOR);
-        procId();
+        int line = lex.getLine();
+
+        Variable var = procId();
         eat(TokenType.IN);
-        procExpr();
+        Expr expr = procExpr();
 
         if (current.type == TokenType.DO)
             advance();
 
-        procCode();
+        BlocksCommand cmd = procCode();
         eat(TokenType.END);
+
+        ForCommand fcmd = new ForCommand(line, var, expr, cmd);
+        return fcmd;
     }
 
     // <output> ::= ( puts | print ) [ <expr> ] [ <post> ] ';'
-    private void procOutput() throws LexicalException {
-        if (current.type == TokenType.PUTS)
+    private Command procOutput() throws LexicalException {
+        OutputOp op = null;
+        if (current.type == TokenType.PUTS) {
+            op = OutputOp.PutsOp;
             advance();
-        else if (current.type == TokenType.PRINT)
+        } else if (current.type == TokenType.PRINT) {
+            op = OutputOp.PrintOp;
             advance();
-        else
+        } else
             showError();
 
-        if (current.type == TokenType.ADD || current.type == TokenType.SUB || current.type == TokenType.INTEGER
-                || current.type == TokenType.STRING || current.type == TokenType.OPEN_BRA
-                || current.type == TokenType.GETS || current.type == TokenType.RAND || current.type == TokenType.ID
-                || current.type == TokenType.OPEN_PAR) {
-            procExpr();
+        int line = lex.getLine();
+
+        Expr expr = null;
+        if (isExprStart()) {
+            expr = procExpr();
         }
 
+        Command cmd = new OutputCommand(line, op, expr);
+
         if (current.type == TokenType.IF || current.type == TokenType.UNLESS) {
-            procPost();
+            cmd = procPost(cmd);
         }
 
         eat(TokenType.SEMI_COLON);
+
+        return cmd;
     }
 
     // <assign> ::= <access> { ',' <access> } '=' <expr> { ',' <expr> } [ <post> ]
     // ';'
-    private AssignCommand procAssign() throws LexicalException {
-        procAcess();
+    private Command procAssign() throws LexicalException {
+        int line = lex.getLine();
+
+        List<SetExpr> left = new ArrayList<SetExpr>();
+        left.add(procSetExpr());
         while (current.type == TokenType.COMMA) {
             advance();
-            procAcess();
+            left.add(procSetExpr());
         }
 
         eat(TokenType.ASSIGN);
 
-        procExpr();
+        List<Expr> right = new ArrayList<Expr>();
+        right.add(procExpr());
 
         while (current.type == TokenType.COMMA) {
             advance();
-            procExpr();
+            right.add(procExpr());
         }
 
+        Command cmd = Fusion.assign(line, left, right);
+
         if (current.type == TokenType.IF || current.type == TokenType.UNLESS) {
-            procPost();
+            cmd = procPost(cmd);
         }
 
         eat(TokenType.SEMI_COLON);
 
-        return new AssignCommand();
+        return cmd;
+    }
+
+    private SetExpr procSetExpr() throws LexicalException {
+        Expr expr = procAcess();
+        if (!(expr instanceof SetExpr))
+            showError();
+
+        return (SetExpr) expr;
     }
 
     // <post> ::= ( if | unless ) <boolexpr>
-    private void procPost() throws LexicalException {
-        if (current.type == TokenType.IF)
+    private Command procPost(Command cmd) throws LexicalException {
+        boolean isIf = false;
+        if (current.type == TokenType.IF) {
+            isIf = true;
             advance();
-        else if (current.type == TokenType.UNLESS)
+        } else if (current.type == TokenType.UNLESS)
             advance();
         else
             showError();
 
-        procBoolExpr();
+        int line = lex.getLine();
+        BoolExpr cond = procBoolExpr();
+
+        if (isIf)
+            return new IfCommand(line, cond, cmd);
+        else
+            return new UnlessCommand(line, cond, cmd);
     }
 
     // <boolexpr> ::= [ not ] <cmpexpr> [ (and | or) <boolexpr> ]
     private BoolExpr procBoolExpr() throws LexicalException {
-        if (current.type == TokenType.NOT)
+        boolean not = false;
+        if (current.type == TokenType.NOT) {
+            not = true;
             advance();
-        procCmpexpr();
+        }
+
+        int line = lex.getLine();
+        BoolExpr expr = procCmpexpr();
+        if (not)
+            expr = new NotBoolExpr(line, expr);
+
         if (current.type == TokenType.AND || current.type == TokenType.OR) {
-            if (current.type == TokenType.AND)
+            BoolOp op = null;
+            if (current.type == TokenType.AND) {
+                op = BoolOp.And;
                 advance();
-            else if (current.type == TokenType.OR)
+            } else if (current.type == TokenType.OR) {
+                op = BoolOp.Or;
                 advance();
-            else
+            } else
                 showError();
 
-            procBoolExpr();
+            BoolExpr right = procBoolExpr();
+            expr = new CompositeBoolExpr(line, expr, op, right);
         }
+
+        return expr;
     }
 
     // <cmpexpr> ::= <expr> ( '==' | '!=' | '<' | '<=' | '>' | '>=' | '===' ) <expr>
-    private void procCmpexpr() throws LexicalException {
-        procExpr();
+    private BoolExpr procCmpexpr() throws LexicalException {
+        Expr left = procExpr();
+
+        RelOp op = null;
         if (current.type == TokenType.EQUALS)
-            advance();
+            op = RelOp.EqualsOp;
         else if (current.type == TokenType.NOT_EQUALS)
-            advance();
+            op = RelOp.NotEqualsOp;
         else if (current.type == TokenType.LOWER)
-            advance();
+            op = RelOp.LowerThanOp;
         else if (current.type == TokenType.LOWER_EQ)
-            advance();
+            op = RelOp.LowerEqualOp;
         else if (current.type == TokenType.GREATER)
-            advance();
+            op = RelOp.GreaterThanOp;
         else if (current.type == TokenType.GREATER_EQ)
-            advance();
+            op = RelOp.GreaterEqualOp;
         else if (current.type == TokenType.CONTAINS)
-            advance();
+            op = RelOp.ContainsOp;
         else
             showError();
 
-        procExpr();
+        advance();
+        int line = lex.getLine();
+
+        Expr right = procExpr();
+
+        return Fusion.compare(line, left, op, right);
     }
 
     // <expr> ::= <arith> [ ( '..' | '...' ) <arith> ]
@@ -298,113 +420,156 @@ public class SyntaticAnalysis {
         if (current.type == TokenType.RANGE_WITH || current.type == TokenType.RANGE_WITHOUT) {
             BinaryOp op = null;
             if (current.type == TokenType.RANGE_WITH)
-                op = BinaryOp.RangewitOp;
+                op = BinaryOp.RangeWithOp;
             else {
-                op = BinaryOp.RangewithoutOp;
+                op = BinaryOp.RangeWithoutOp;
             }
             advance();
             int line = lex.getLine();
             Expr right = procArith();
-            BinaryExpr tmp = new BinaryExpr(line, expr, op, right);
-
+            expr = new BinaryExpr(line, expr, op, right);
         }
         return expr;
     }
 
     // <arith> ::= <term> { ('+' | '-') <term> }
-    private void procArith() throws LexicalException {
-        procTerm();
+    private Expr procArith() throws LexicalException {
+        Expr expr = procTerm();
 
         while (current.type == TokenType.ADD || current.type == TokenType.SUB) {
+            BinaryOp op = current.type == TokenType.ADD ? BinaryOp.AddOp : BinaryOp.SubOp;
             advance();
-            procTerm();
+            int line = lex.getLine();
+            Expr right = procTerm();
+            expr = new BinaryExpr(line, expr, op, right);
         }
+
+        return expr;
     }
 
     // <term> ::= <power> { ('*' | '/' | '%') <power> }
-    private void procTerm() throws LexicalException {
-        procPower();
+    private Expr procTerm() throws LexicalException {
+        Expr expr = procPower();
 
         while (current.type == TokenType.MUL || current.type == TokenType.DIV || current.type == TokenType.MOD) {
+            BinaryOp op = null;
+            if (current.type == TokenType.MUL)
+                op = BinaryOp.MulOp;
+            else if (current.type == TokenType.DIV)
+                op = BinaryOp.DivOp;
+            else
+                op = BinaryOp.ModOp;
+
             advance();
-            procPower();
+            int line = lex.getLine();
+            Expr right = procPower();
+            expr = new BinaryExpr(line, expr, op, right);
         }
+
+        return expr;
     }
 
     // <power> ::= <factor> { '**' <factor> }
-    private void procPower() throws LexicalException {
-        procFactor();
+    private Expr procPower() throws LexicalException {
+        Expr expr = procFactor();
 
         while (current.type == TokenType.EXP) {
             advance();
-            procFactor();
+            int line = lex.getLine();
+            Expr right = procFactor();
+            expr = new BinaryExpr(line, expr, BinaryOp.ExpOp, right);
         }
+
+        return expr;
     }
 
     // <factor> ::= [ '+' | '-' ] ( <const> | <input> | <access> ) [ <function> ]
-    private void procFactor() throws LexicalException {
-        if (current.type == TokenType.ADD || current.type == TokenType.SUB)
+    private Expr procFactor() throws LexicalException {
+        ConvOp op = null;
+        if (current.type == TokenType.ADD) {
+            op = ConvOp.PlusOp;
+            advance();
+        } else if (current.type == TokenType.SUB) {
+            op = ConvOp.MinusOp;
             advance();
+        }
+
+        int line = lex.getLine();
+
+        Expr expr = null;
         if (current.type == TokenType.INTEGER || current.type == TokenType.STRING || current.type == TokenType.OPEN_BRA)
-            procConst();
+            expr = procConst();
         else if (current.type == TokenType.GETS || current.type == TokenType.RAND)
-            procInput();
+            expr = procInput();
         else if (current.type == TokenType.ID || current.type == TokenType.OPEN_PAR)
-            procAcess();
+            expr = procAcess();
         else
             showError();
         if (current.type == TokenType.DOT)
-            procFunction();
+            expr = procFunction(expr);
+
+        if (op != null)
+            expr = new ConvExpr(line, op, expr);
+
+        return expr;
     }
 
     // <const> ::= <integer> | <string> | <array>
-    private void procConst() throws LexicalException {
+    private Expr procConst() throws LexicalException {
+        Expr expr = null;
         if (current.type == TokenType.INTEGER)
-            procInteger();
+            expr = procInteger();
         else if (current.type == TokenType.STRING)
-            procString();
+            expr = procString();
         else if (current.type == TokenType.OPEN_BRA)
-            procArray();
+            expr = procArray();
+
+        return expr;
     }
 
     // <input> ::= gets | rand
-    private void procInput() throws LexicalException {
-        if (current.type == TokenType.GETS)
+    private InputExpr procInput() throws LexicalException {
+        InputOp op = null;
+        if (current.type == TokenType.GETS) {
+            op = InputOp.GetsOp;
             eat(TokenType.GETS);
-        else if (current.type == TokenType.RAND)
+        } else if (current.type == TokenType.RAND) {
+            op = InputOp.RandOp;
             eat(TokenType.RAND);
+        }
+
+        int line = lex.getLine();
+        return new InputExpr(line, op);
     }
 
     // <array> ::= '[' [ <expr> { ',' <expr> } ] ']'
-    private void procArray() throws LexicalException {
+    private ArrayExpr procArray() throws LexicalException {
         eat(TokenType.OPEN_BRA);
+        int line = lex.getLine();
 
-        if (current.type == TokenType.ADD || current.type == TokenType.SUB || current.type == TokenType.INTEGER
-                || current.type == TokenType.STRING || current.type == TokenType.OPEN_BRA
-                || current.type == TokenType.GETS || current.type == TokenType.RAND || current.type == TokenType.ID
-                || current.type == TokenType.OPEN_PAR) {
-            procExpr();
+        List<Expr> exprs = new ArrayList<Expr>();
+        if (isExprStart()) {
+            exprs.add(procExpr());
 
             while (current.type == TokenType.COMMA) {
                 advance();
-                procExpr();
+                exprs.add(procExpr());
             }
         }
         eat(TokenType.CLOSE_BRA);
+
+        return new ArrayExpr(line, exprs);
     }
 
     // <access> ::= ( <id> | '(' <expr> ')' ) [ '[' <expr> ']' ]
-    private void procAcess() throws LexicalException {
+    private Expr procAcess() throws LexicalException {
+        Expr base = null;
         if (current.type == TokenType.ID)
-            procId();
+            base = procId();
         else if (current.type == TokenType.OPEN_PAR) {
             eat(TokenType.OPEN_PAR);
-            if (current.type == TokenType.ADD || current.type == TokenType.SUB || current.type == TokenType.INTEGER
-                    || current.type == TokenType.STRING || current.type == TokenType.OPEN_BRA
-                    || current.type == TokenType.GETS || current.type == TokenType.RAND || current.type == TokenType.ID
-                    || current.type == TokenType.OPEN_PAR)
-
-                procExpr();
+            if (isExprStart())
+                base = procExpr();
             else
                 showError();
             eat(TokenType.CLOSE_PAR);
@@ -413,40 +578,72 @@ public class SyntaticAnalysis {
 
         if (current.type == TokenType.OPEN_BRA) {
             eat(TokenType.OPEN_BRA);
-            if (current.type == TokenType.ADD || current.type == TokenType.SUB || current.type == TokenType.INTEGER
-                    || current.type == TokenType.STRING || current.type == TokenType.OPEN_BRA
-                    || current.type == TokenType.GETS || current.type == TokenType.RAND || current.type == TokenType.ID
-                    || current.type == TokenType.OPEN_PAR)
+            int line = lex.getLine();
 
-                procExpr();
+            Expr index = null;
+            if (isExprStart())
+                index = procExpr();
+            else
+                showError();
             eat(TokenType.CLOSE_BRA);
+
+            return new AccessExpr(line, base, index);
         }
+
+        return base;
     }
 
     // <function> ::= '.' ( length | to_i | to_s )
-    private void procFunction() throws LexicalException {
+    private FunctionExpr procFunction(Expr expr) throws LexicalException {
         eat(TokenType.DOT);
+        int line = lex.getLine();
+
+        FunctionOp op = null;
         if (current.type == TokenType.LENGTH)
-            advance();
+            op = FunctionOp.LengthOp;
         else if (current.type == TokenType.TO_INT)
-            advance();
+            op = FunctionOp.ToIntOp;
         else if (current.type == TokenType.TO_STR)
-            advance();
+            op = FunctionOp.ToStringOp;
         else
             showError();
+
+        advance();
+        return new FunctionExpr(line, op, expr);
     }
 
-    private void procInteger() throws LexicalException {
+    private ConstExpr procInteger() throws LexicalException {
+        String tmp = current.token;
+
+        // Literais que não cabem em int viram BigIntegerValue.
+        Value<?> v = null;
+        try {
+            v = BigIntegerValue.valueOf(new BigInteger(tmp));
+        } catch (NumberFormatException e) {
+            showError();
+        }
+
         eat(TokenType.INTEGER);
+        int line = lex.getLine();
+
+        return new ConstExpr(line, v);
     }
 
-    private StringValue procString() throws LexicalException {
+    private ConstExpr procString() throws LexicalException {
+        String tmp = current.token;
         eat(TokenType.STRING);
-        return new procString();
+        int line = lex.getLine();
+
+        StringValue sv = new StringValue(tmp);
+        return new ConstExpr(line, sv);
     }
 
-    private void procId() throws LexicalException {
+    private Variable procId() throws LexicalException {
+        String tmp = current.token;
         eat(TokenType.ID);
+        int line = lex.getLine();
+
+        return new Variable(line, tmp);
     }
 
 }
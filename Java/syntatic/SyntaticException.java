@@ -0,0 +1,16 @@
+package syntatic;
+
+public class SyntaticException extends RuntimeException {
+
+    private int line;
+
+    public SyntaticException(int line, String msg) {
+        super(msg);
+        this.line = line;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+}
@@ -0,0 +1,66 @@
+package compiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import interpreter.Mrbi;
+import interpreter.command.BlocksCommand;
+import lexical.LexicalAnalysis;
+import syntatic.SyntaticAnalysis;
+import syntatic.SyntaticException;
+
+// O jar gerado tem de produzir a saída e o código de término do
+// interpretador original.
+class JarCompilerTest {
+
+    @ParameterizedTest
+    @MethodSource("interpreter.Mrbi#corpus")
+    void compiled(String script, @TempDir Path dir) throws Exception {
+        Path source = Mrbi.resource(script);
+        Path jar = dir.resolve("out.jar");
+
+        String out;
+        try (LexicalAnalysis l = new LexicalAnalysis(source.toString())) {
+            BlocksCommand c = new SyntaticAnalysis(l).start();
+            JarCompiler.compile(c, source.getFileName().toString(), jar);
+            out = Mrbi.java("-jar", jar.toString());
+        } catch (SyntaticException e) {
+            // Rejeitado na compilação, com a mensagem do interpretador.
+            out = String.format("%02d: %s\n", e.getLine(), e.getMessage()) + "exit 1\n";
+        }
+
+        assertEquals(Mrbi.expected(script), out);
+    }
+
+    // Um corpo de laço e uma cadeia de elsif grandes demais para um método,
+    // e variáveis demais para um inicializador estático.
+    @Test
+    void largeBlocks(@TempDir Path dir) throws Exception {
+        StringBuilder sb = new StringBuilder("i = 0;\ns = 0;\nwhile i < 3 do\n");
+        for (int k = 0; k < 6000; k++)
+            sb.append("  x").append(k).append(" = i + ").append(k).append(";\n");
+        sb.append("  if i == 0 then\n    s = s + 1;\n");
+        for (int k = 1; k < 600; k++)
+            sb.append("  elsif i == ").append(k).append(" then\n    s = s + ").append(k + 1).append(";\n");
+        sb.append("  else\n    s = 0;\n  end\n  i = i + 1;\nend\nputs x5999;\nputs s;\n");
+
+        Path source = dir.resolve("large.rb");
+        Files.writeString(source, sb);
+        Path jar = dir.resolve("out.jar");
+        try (LexicalAnalysis l = new LexicalAnalysis(source.toString())) {
+            JarCompiler.compile(new SyntaticAnalysis(l).start(), "large.rb", jar);
+        }
+
+        String expected = "6001\n6\nexit 0\n";
+        assertEquals(expected, Mrbi.run(source.toString()));
+        assertEquals(expected, Mrbi.java("-jar", jar.toString()));
+    }
+
+}
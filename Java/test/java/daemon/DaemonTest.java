@@ -0,0 +1,104 @@
+package daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import interpreter.Mrbi;
+
+// Um daemon para a classe toda; cada teste fala com ele pelo mrbic.
+class DaemonTest {
+
+    @TempDir
+    static Path dir;
+
+    private static Path socket;
+    private static Process daemon;
+
+    @BeforeAll
+    static void start() throws Exception {
+        socket = dir.resolve("mrbi.sock");
+        ProcessBuilder pb = new ProcessBuilder(Mrbi.command("-cp", Mrbi.classpath(), "mrbi", "--daemon=" + socket));
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+        daemon = pb.start();
+
+        for (int i = 0; i < 300 && !Files.exists(socket); i++)
+            Thread.sleep(100);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        daemon.destroy();
+        daemon.waitFor();
+    }
+
+    @Test
+    void runsInlineCode() throws Exception {
+        assertEquals("3\nexit 0\n", client("-e", "puts 1 + 2;"));
+    }
+
+    @Test
+    void runsScriptFiles() throws Exception {
+        String script = "corpus/control.rb";
+        assertEquals(Mrbi.expected(script), client(Mrbi.resource(script).toString()));
+    }
+
+    @Test
+    void reportsErrorsWithStatus() throws Exception {
+        assertEquals("ok\n01: Operação inválida\nexit 1\n", client("-e", "puts 'ok'; puts 1 / 0;"));
+    }
+
+    // Um script não vê as variáveis do anterior.
+    @Test
+    void isolatesRequests() throws Exception {
+        assertEquals("5\nexit 0\n", client("-e", "x = 5; puts x;"));
+        assertEquals("\nexit 0\n", client("-e", "puts x;"));
+    }
+
+    // Um Error no script, aqui o estouro da pilha do analisador, encerra só
+    // aquela requisição.
+    @Test
+    void survivesErrors() throws Exception {
+        Path deep = dir.resolve("deep.rb");
+        Files.writeString(deep, "puts " + "(".repeat(200000) + "1" + ")".repeat(200000) + ";\n");
+
+        assertEquals("exit 1\n", client(deep.toString()));
+        assertEquals("3\nexit 0\n", client("-e", "puts 1 + 2;"));
+    }
+
+    // Um cliente que conectou e parou no meio do cabeçalho não segura os
+    // outros.
+    @Test
+    void servesOthersWhileAClientIsIdle() throws Exception {
+        try (SocketChannel idle = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            idle.connect(UnixDomainSocketAddress.of(socket));
+            idle.write(ByteBuffer.wrap(new byte[] { Protocol.SOURCE_INLINE }));
+
+            assertEquals("3\nexit 0\n", client("-e", "puts 1 + 2;"));
+        }
+    }
+
+    private static String client(String... args) throws Exception {
+        String[] cmd = new String[args.length + 5];
+        cmd[0] = "-cp";
+        cmd[1] = Mrbi.classpath();
+        cmd[2] = "mrbic";
+        cmd[3] = "-s";
+        cmd[4] = socket.toString();
+        System.arraycopy(args, 0, cmd, 5, args.length);
+
+        return Mrbi.java(cmd);
+    }
+
+}
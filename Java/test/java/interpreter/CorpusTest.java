@@ -0,0 +1,35 @@
+package interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+// Cada modo de execução tem de produzir a saída e o código de término do
+// interpretador original.
+class CorpusTest {
+
+    @ParameterizedTest
+    @MethodSource("interpreter.Mrbi#corpus")
+    void interpreted(String script) throws Exception {
+        assertEquals(Mrbi.expected(script), Mrbi.run(path(script)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interpreter.Mrbi#corpus")
+    void streamed(String script) throws Exception {
+        assertEquals(Mrbi.expected(script), Mrbi.run("--stream", path(script)));
+    }
+
+    // Todo arranjo de inteiros com mais de um elemento fica fora do heap.
+    @ParameterizedTest
+    @MethodSource("interpreter.Mrbi#corpus")
+    void offHeap(String script) throws Exception {
+        assertEquals(Mrbi.expected(script), Mrbi.run("--offheap=1", path(script)));
+    }
+
+    private static String path(String script) {
+        return Mrbi.resource(script).toString();
+    }
+
+}
@@ -0,0 +1,97 @@
+package interpreter;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import interpreter.util.Memory;
+
+// Roda programas numa JVM filha, como na linha de comando. O resultado é a
+// saída padrão seguida de "exit N", o formato dos arquivos em expected/,
+// gerados pelo interpretador original.
+public final class Mrbi {
+
+    private static final long TIMEOUT = 60;
+
+    private Mrbi() {
+    }
+
+    // Scripts de corpus/ e os dos benchmarks, em scripts/.
+    public static List<String> corpus() throws IOException {
+        List<String> names = new ArrayList<String>();
+        for (String dir : new String[] { "corpus", "scripts" }) {
+            try (Stream<Path> files = Files.list(resource(dir))) {
+                files.map(p -> p.getFileName().toString()).filter(n -> n.endsWith(".rb"))
+                        .forEach(n -> names.add(dir + "/" + n));
+            }
+        }
+        names.sort(null);
+
+        return names;
+    }
+
+    public static Path resource(String name) {
+        URL url = Mrbi.class.getResource("/" + name);
+        if (url == null)
+            throw new IllegalArgumentException("missing test resource " + name);
+
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public static String expected(String script) throws IOException {
+        String name = Paths.get(script).getFileName().toString().replace(".rb", ".out");
+        return Files.readString(resource("expected/" + name), StandardCharsets.UTF_8);
+    }
+
+    // mrbi com as classes compiladas do módulo.
+    public static String run(String... args) throws Exception {
+        List<String> cmd = new ArrayList<String>(Arrays.asList("-cp", classpath(), "mrbi"));
+        cmd.addAll(Arrays.asList(args));
+
+        return java(cmd.toArray(new String[0]));
+    }
+
+    public static String java(String... args) throws Exception {
+        List<String> cmd = command(args);
+        ProcessBuilder pb = new ProcessBuilder(cmd);
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+        Process p = pb.start();
+        // Entrada vazia: gets devolve ''.
+        p.getOutputStream().close();
+
+        String out = new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (!p.waitFor(TIMEOUT, TimeUnit.SECONDS)) {
+            p.destroyForcibly();
+            throw new AssertionError("timed out: " + cmd);
+        }
+
+        return out + "exit " + p.exitValue() + "\n";
+    }
+
+    public static List<String> command(String... args) {
+        List<String> cmd = new ArrayList<String>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.add("-Dfile.encoding=UTF-8");
+        cmd.addAll(Arrays.asList(args));
+
+        return cmd;
+    }
+
+    public static String classpath() throws URISyntaxException {
+        return Paths.get(Memory.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+}
@@ -0,0 +1,78 @@
+package interpreter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import interpreter.Mrbi;
+
+class GovernorTest {
+
+    private static final String FOREVER = "i = 0;\n"
+            + "while 1 == 1 do\n"
+            + "  i = i + 1;\n"
+            + "end\n";
+
+    @Test
+    void stopsAfterMaxSteps(@TempDir Path dir) throws Exception {
+        assertEquals("02: Limite de comandos excedido\nexit 1\n",
+                Mrbi.run("--max-steps=1000", script(dir, FOREVER)));
+    }
+
+    @Test
+    void stopsAfterMaxCells(@TempDir Path dir) throws Exception {
+        String grow = "s = '';\n"
+                + "while 1 == 1 do\n"
+                + "  s = s + 'abcdefgh';\n"
+                + "end\n";
+
+        assertEquals("03: Limite de alocação excedido\nexit 1\n", Mrbi.run("--max-cells=10000", script(dir, grow)));
+    }
+
+    // O intervalo é cobrado antes de existir: a JVM pequena não chega a
+    // faltar memória, nem no heap nem fora dele.
+    @Test
+    void stopsHugeRangesBeforeAllocating(@TempDir Path dir) throws Exception {
+        String expected = "01: Limite de alocação excedido\nexit 1\n";
+
+        assertEquals(expected, Mrbi.java("-Xmx32m", "-cp", Mrbi.classpath(), "mrbi", "--max-cells=1000",
+                script(dir, "a = 0..10000000;\n")));
+        assertEquals(expected, Mrbi.java("-Xmx32m", "-XX:MaxDirectMemorySize=64m", "-cp", Mrbi.classpath(), "mrbi",
+                "--max-cells=1000", script(dir, "a = 0..2000000000;\n")));
+    }
+
+    @Test
+    void stopsAtTimeout(@TempDir Path dir) throws Exception {
+        long start = System.nanoTime();
+        assertEquals("02: Tempo limite excedido\nexit 1\n", Mrbi.run("--timeout=200", script(dir, FOREVER)));
+        assertTrue(System.nanoTime() - start < 20_000_000_000L);
+    }
+
+    @Test
+    void allowsScriptsWithinLimits(@TempDir Path dir) throws Exception {
+        String fill = "a = [];\n"
+                + "i = 0;\n"
+                + "while i < 100 do\n"
+                + "  a[i] = i;\n"
+                + "  i = i + 1;\n"
+                + "end\n"
+                + "puts a.length;\n";
+
+        assertEquals("100\nexit 0\n",
+                Mrbi.run("--max-steps=1000", "--max-cells=1000", "--timeout=10000", script(dir, fill)));
+    }
+
+    private static String script(Path dir, String source) throws Exception {
+        Path script = dir.resolve("script.rb");
+        Files.write(script, source.getBytes(StandardCharsets.UTF_8));
+
+        return script.toString();
+    }
+
+}
@@ -0,0 +1,61 @@
+package interpreter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import interpreter.Mrbi;
+
+// before.rb com --snapshot e after.rb com --restore equivalem aos dois
+// scripts num só.
+class MemorySnapshotTest {
+
+    @Test
+    void roundTrip(@TempDir Path dir) throws Exception {
+        roundTrip(dir, new String[0]);
+    }
+
+    @Test
+    void roundTripOffHeap(@TempDir Path dir) throws Exception {
+        roundTrip(dir, "--offheap=1");
+    }
+
+    @Test
+    void corrupted(@TempDir Path dir) throws Exception {
+        Path snap = dir.resolve("state.snap");
+        Mrbi.run("--snapshot=" + snap, Mrbi.resource("snapshot/before.rb").toString());
+
+        byte[] b = Files.readAllBytes(snap);
+        Files.write(snap, Arrays.copyOf(b, b.length / 2));
+
+        assertEquals("exit 1\n", Mrbi.run("--restore=" + snap, Mrbi.resource("snapshot/after.rb").toString()));
+    }
+
+    private void roundTrip(Path dir, String... options) throws Exception {
+        Path before = Mrbi.resource("snapshot/before.rb");
+        Path after = Mrbi.resource("snapshot/after.rb");
+        Path both = dir.resolve("both.rb");
+        Files.write(both, (Files.readString(before, StandardCharsets.UTF_8)
+                + Files.readString(after, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+        Path snap = dir.resolve("state.snap");
+
+        String saved = Mrbi.run(with(options, "--snapshot=" + snap, before.toString()));
+        String restored = Mrbi.run(with(options, "--restore=" + snap, after.toString()));
+
+        assertEquals(Mrbi.run(with(options, both.toString())), saved.replace("exit 0\n", "") + restored);
+    }
+
+    private static String[] with(String[] options, String... args) {
+        String[] all = Arrays.copyOf(options, options.length + args.length);
+        System.arraycopy(args, 0, all, options.length, args.length);
+
+        return all;
+    }
+
+}
@@ -0,0 +1,87 @@
+package interpreter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import interpreter.Mrbi;
+
+class ProfilerTest {
+
+    private static final String SCRIPT = "i = 0;\n"
+            + "s = 0;\n"
+            + "while i < 200000 do\n"
+            + "  s = s + 1;\n"
+            + "  i = i + 1;\n"
+            + "end\n"
+            + "puts s;\n";
+
+    @Test
+    void countsEveryExecutedLine(@TempDir Path dir) throws Exception {
+        String report = profile(dir);
+        assertEquals("200000\n", Files.readString(dir.resolve("out.txt"), StandardCharsets.UTF_8));
+
+        Map<Integer, Long> counts = lineCounts(report);
+        assertEquals(200000L, counts.get(4));
+        assertEquals(200000L, counts.get(5));
+        // As limpezas de variáveis mortas depois do while e do puts não
+        // contam.
+        assertEquals(1L, counts.get(3));
+        assertEquals(1L, counts.get(7));
+    }
+
+    @Test
+    void writesCollapsedStacks(@TempDir Path dir) throws Exception {
+        profile(dir);
+
+        List<String> stacks = Files.readAllLines(dir.resolve("out.collapsed"), StandardCharsets.UTF_8);
+        for (String s : stacks) {
+            assertTrue(s.matches("\\w+:\\d+(;\\w+:\\d+)* \\d+"), s);
+            assertFalse(s.contains("ClearCommand"), s);
+        }
+
+        // O corpo do laço aparece dentro do while.
+        assertTrue(stacks.stream().anyMatch(s -> s.matches("WhileCommand:3;\\w+:[45] \\d+")), stacks.toString());
+    }
+
+    // O relatório vai para a saída de erros; devolve o que foi escrito nela.
+    private static String profile(Path dir) throws Exception {
+        Path script = dir.resolve("loop.rb");
+        Files.write(script, SCRIPT.getBytes(StandardCharsets.UTF_8));
+
+        ProcessBuilder pb = new ProcessBuilder(Mrbi.command("-cp", Mrbi.classpath(), "mrbi",
+                "--profile=" + dir.resolve("out.collapsed"), script.toString()));
+        pb.redirectOutput(dir.resolve("out.txt").toFile());
+        pb.redirectError(dir.resolve("err.txt").toFile());
+        assertEquals(0, pb.start().waitFor());
+
+        return Files.readString(dir.resolve("err.txt"), StandardCharsets.UTF_8);
+    }
+
+    // Linhas da tabela "Hot lines": linha, contagem, tempo e porcentagem.
+    private static Map<Integer, Long> lineCounts(String report) {
+        Map<Integer, Long> counts = new HashMap<Integer, Long>();
+        String[] lines = report.split("\n");
+        int i = 0;
+        while (!lines[i].startsWith("Hot lines"))
+            i++;
+
+        for (i += 2; i < lines.length && !lines[i].isEmpty(); i++) {
+            String[] f = lines[i].trim().split("\\s+");
+            counts.put(Integer.parseInt(f[0]), Long.parseLong(f[1]));
+        }
+
+        return counts;
+    }
+
+}
@@ -0,0 +1,55 @@
+package interpreter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import compiler.JarCompiler;
+import interpreter.Mrbi;
+import lexical.LexicalAnalysis;
+import syntatic.SyntaticAnalysis;
+
+class RandomSourceTest {
+
+    private static final String DRAWS = "i = 0;\n"
+            + "while i < 1000 do\n"
+            + "  puts rand;\n"
+            + "  i = i + 1;\n"
+            + "end\n";
+
+    @Test
+    void seedRepeatsTheSequence(@TempDir Path dir) throws Exception {
+        Path script = script(dir);
+        String first = Mrbi.run("--seed=7", script.toString());
+
+        assertEquals(first, Mrbi.run("--seed=7", script.toString()));
+        assertNotEquals(first, Mrbi.run("--seed=8", script.toString()));
+    }
+
+    // mrbi.seed dá ao programa compilado a sequência de --seed.
+    @Test
+    void compiledProgramsTakeTheSeedProperty(@TempDir Path dir) throws Exception {
+        Path script = script(dir);
+        Path jar = dir.resolve("out.jar");
+
+        try (LexicalAnalysis l = new LexicalAnalysis(script.toString())) {
+            JarCompiler.compile(new SyntaticAnalysis(l).start(), "draws.rb", jar);
+        }
+
+        assertEquals(Mrbi.run("--seed=7", script.toString()), Mrbi.java("-Dmrbi.seed=7", "-jar", jar.toString()));
+    }
+
+    private static Path script(Path dir) throws Exception {
+        Path script = dir.resolve("draws.rb");
+        Files.write(script, DRAWS.getBytes(StandardCharsets.UTF_8));
+
+        return script;
+    }
+
+}
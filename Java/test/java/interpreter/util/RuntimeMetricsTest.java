@@ -0,0 +1,89 @@
+package interpreter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lexical.LexicalAnalysis;
+import syntatic.SyntaticAnalysis;
+
+// Os atributos são lidos pelo servidor de MBeans, como um cliente JMX faria.
+// Os contadores são globais, então o teste compara diferenças.
+class RuntimeMetricsTest {
+
+    private static final MBeanServer SERVER = ManagementFactory.getPlatformMBeanServer();
+    private static ObjectName name;
+
+    @BeforeAll
+    static void register() throws Exception {
+        name = new ObjectName(RuntimeMetrics.OBJECT_NAME);
+        if (!SERVER.isRegistered(name))
+            RuntimeMetrics.register();
+    }
+
+    @Test
+    void countsExecution(@TempDir Path dir) throws Exception {
+        long commands = attribute("CommandsExecuted");
+        long strings = attribute("StringAllocations");
+        long arrays = attribute("ArrayAllocations");
+        long output = attribute("OutputBytes");
+
+        run(dir, "a = [1, 2, 3, 4, 5, 6, 7];\n"
+                + "s = 'ab' + 'c';\n"
+                + "i = 0;\n"
+                + "while i < 10 do\n"
+                + "  i = i + 1;\n"
+                + "end\n"
+                + "puts s;\n");
+
+        // Cinco comandos no nível mais alto e dez iterações.
+        assertTrue(attribute("CommandsExecuted") - commands >= 15);
+        assertTrue(attribute("StringAllocations") > strings);
+        assertTrue(attribute("ArrayAllocations") > arrays);
+        assertTrue(attribute("LargestArrayLength") >= 7);
+        assertTrue(attribute("VariableCount") >= 3);
+        assertTrue(attribute("RetainedSizeEstimate") > 0);
+        assertEquals(4, attribute("OutputBytes") - output);
+    }
+
+    // Bytes em UTF-8, não caracteres: ç, ã e € ocupam mais de um.
+    @Test
+    void countsOutputInUtf8Bytes(@TempDir Path dir) throws Exception {
+        long output = attribute("OutputBytes");
+
+        run(dir, "puts 'ação';\nprint '€';\n");
+
+        assertEquals(10, attribute("OutputBytes") - output);
+    }
+
+    private static long attribute(String attr) throws Exception {
+        return ((Number) SERVER.getAttribute(name, attr)).longValue();
+    }
+
+    private static void run(Path dir, String source) throws Exception {
+        Path script = dir.resolve("script.rb");
+        Files.write(script, source.getBytes(StandardCharsets.UTF_8));
+
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+        try (LexicalAnalysis l = new LexicalAnalysis(script.toString())) {
+            new SyntaticAnalysis(l).start().execute();
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+a = 0..9;
+b = a;
+a = 0;
+puts b[5];
+a = 10..19;
+a, c = 0, a;
+puts c;
+d = 20..29;
+for x in d do
+  d = 0;
+  puts x if x == 25;
+end
+e = 30..39;
+f = [e, 1];
+e = 0;
+y = f[0];
+puts y[3];
+g = 40..49;
+g = g + g;
+puts g.length;
+puts g;
+h = 50..59;
+h[12] = 'z';
+puts h;
+k = 0..4;
+k = k[2];
+puts k;
+m = 0..9;
+puts 'in' if m === 9;
+n = 0..9;
+puts 'eq' if m == n;
+m[3] = 7;
+puts 'ne' if m != n;
+p = 0..4;
+i = 5;
+while i < 10 do
+  p[i] = i * 2;
+  i = i + 1;
+end
+puts p;
+q = p;
+p, q = q, p;
+puts q;
@@ -0,0 +1,8 @@
+x = 9999999999999999999999;
+puts x;
+puts x + 1;
+puts x * -x;
+y = 2147483647;
+puts y + 1;
+puts 3 ** 40 / x;
+puts x % 1000;
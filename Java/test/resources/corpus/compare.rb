@@ -0,0 +1,23 @@
+a = [10, 20, 30];
+j = 1;
+x = a[j];
+puts x;
+x = a[-1];
+puts x;
+x = a[7];
+puts x;
+w = 'hello';
+x = w[1];
+puts x;
+x = a[2];
+puts x;
+k = 'b';
+puts 'lt' if j < 2;
+puts 'eq' if j == 1;
+puts 'ne' if k != 1;
+puts 'ne2' if k != j;
+puts 'ge' if j >= j;
+puts 'in' if j === 1;
+puts 'str' if k == 'b';
+puts 'undef' if zz == zz;
+puts 'bad' if k < 3;
@@ -0,0 +1,52 @@
+a = [1, 2, 3];
+b = a + a;
+puts b.length;
+i = 0;
+s = 0;
+while i < 5 do
+  t = b[i];
+  s = s + t;
+  i = i + 1;
+end
+puts s;
+puts t;
+for x in b do
+  y = x * 2;
+end
+puts x;
+puts y;
+z = 'z';
+if s > 3 then
+  puts z;
+  w = z + 'w';
+else
+  w = 'no';
+end
+puts w;
+k = 5;
+until k == 0 do
+  k = k - 1;
+  m = k;
+end
+puts m;
+q = 1;
+q = 2 if k == 0;
+puts q;
+n = 3;
+if n == 1 then
+  puts 'one';
+elsif n == 2 then
+  puts 'two';
+elsif n == 3 then
+  puts 'three';
+  v = n;
+elsif n == 4 then
+  puts 'four';
+else
+  puts 'other';
+end
+puts v;
+u = 1;
+u, r = r, u;
+puts u;
+puts r;
@@ -0,0 +1 @@
+x, y = 1;
@@ -0,0 +1,2 @@
+puts 'ok';
+for i in 5 do puts i; end
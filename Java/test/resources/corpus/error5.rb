@@ -0,0 +1,4 @@
+a = [1,2];
+puts a[7];
+a[-1] = 3;
+puts a;
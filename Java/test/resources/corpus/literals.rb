@@ -0,0 +1,24 @@
+s = 'tab	here
+nova linha "aspas" barra\ çã€';
+puts s;
+puts s.length;
+b = 2 ** 100;
+puts b;
+puts b * b - 1;
+a = [1, 'a', [2, 3]];
+a[5] = 7;
+puts a;
+x, y, z = 1, 2, 3;
+x, y = y, x;
+puts x.to_s + y.to_s + z.to_s;
+c = [1, 2, 3];
+c[0], c[2] = c[2], c[0];
+puts c;
+for e in 1..3 do print e; end
+if not 1 > 2 and [1,2,3] === 3 or 1 == 0 then puts 'yes'; end
+puts;
+unless 1 > 2 then puts 'u'; else puts 'v'; end
+puts '12abc'.to_i + 1;
+puts e;
+puts undefinedvar;
+puts gets;
@@ -0,0 +1,18 @@
+i = 0;
+i = i + 1;
+i = 2 + i;
+i = i - 5;
+puts i;
+s = 'ab';
+s = s + 1;
+puts s;
+t = 3;
+t = t + 'x';
+puts t;
+u = [1, 2];
+u = u + [3];
+puts u;
+q = q + 'z';
+puts q;
+m = 4;
+m = m + [1];
@@ -0,0 +1,35 @@
+a = 0..9;
+b = [0, 1, 2, 3, 4, 5, 6, 7, 8, 9];
+puts a;
+puts 'eq' if a == b;
+puts 'in' if a === 7;
+puts 'out' unless a === 10;
+c = a + b;
+puts c.length;
+puts c;
+b[3] = 'x';
+puts b;
+puts 'neq' if a != b;
+b[3] = 3;
+puts 'eq2' if a == b;
+puts 'in2' if b === 3;
+d = [];
+i = 0;
+while i < 20 do
+  d[i] = i * i;
+  i = i + 1;
+end
+puts d;
+d[25] = 1;
+puts d;
+puts d[22];
+e = [1, 2, 3];
+x = e[1];
+puts x + e[2];
+e[-1] = e[0] + e[1];
+puts e;
+f = e + ['a'];
+puts f;
+puts 'y' if f === 'a';
+puts 'n' unless e === 'a';
+puts 'cc' if e + e == [1, 2, 3, 1, 2, 3];
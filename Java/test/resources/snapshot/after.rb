@@ -0,0 +1,16 @@
+i = i + 1;
+puts i;
+puts a;
+b[0] = 7;
+puts a;
+puts n + 1;
+puts s.length;
+puts c[299] + c[1];
+puts c.length;
+c[300] = 'z';
+puts c[300];
+puts d[1];
+puts d[2];
+x = -i;
+puts x;
+puts i ** 2 - 1000 / 7 % 5;
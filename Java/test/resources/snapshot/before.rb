@@ -0,0 +1,15 @@
+# Estado salvo pelo snapshot: inteiros grandes, arranjos compactos,
+# aninhados e compartilhados, strings com acentos.
+i = 41;
+n = 2 ** 70;
+s = 'ação';
+a = [i, i, 'x'];
+b = a;
+c = [];
+k = 0;
+while k < 300 do
+  c[k] = k * 3;
+  k = k + 1;
+end
+d = [c, a, [s, n]];
+puts i;
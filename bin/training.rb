@@ -0,0 +1,32 @@
+# Script de treino para o arquivo CDS: exercita todos os comandos e
+# expressões, para que suas classes sejam carregadas e arquivadas.
+i = 0;
+s = '';
+a = [1, 2, 3] + [4];
+while i < 10 do
+  s = s + i.to_s;
+  i = i + 1;
+end
+until i == 0 do
+  i = i - 1;
+end
+for x in 1..3 do
+  a[x] = x * 2 - 1;
+end
+for x in 0...2 do
+  a[x] = -x % 3;
+end
+if a === 4 and not s.length == 0 then
+  print a.length;
+elsif i > 0 or i <= 0 then
+  print s;
+else
+  print 2 ** 3 / 2;
+end
+unless i >= 1 then
+  b, c = '7'.to_i, rand;
+else
+  b = gets;
+end
+puts s if i != 1;
+puts (a[0]).to_s unless i < 0;
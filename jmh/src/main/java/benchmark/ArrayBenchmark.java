@@ -0,0 +1,97 @@
+package benchmark;
+
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import interpreter.value.IntArrayOps;
+import interpreter.value.IntegerValue;
+import interpreter.value.Value;
+
+// Operações em arranjos de inteiros: boxed é a antiga representação com
+// Vector<Value<?>>, scalar e vector as duas IntArrayOps sobre int[].
+// contains procura uma chave ausente e equals compara cópias iguais, então
+// ambas percorrem o arranjo todo.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class ArrayBenchmark {
+
+    @Param({ "1000000" })
+    public int size;
+
+    @Param({ "boxed", "scalar", "vector" })
+    public String impl;
+
+    private IntArrayOps ops;
+    private int[] a;
+    private int[] b;
+    private Vector<Value<?>> va;
+    private Vector<Value<?>> vb;
+    private IntegerValue missing;
+
+    @Setup
+    public void setup() {
+        if (impl.equals("vector")) {
+            ops = IntArrayOps.vector();
+            if (ops == null)
+                throw new IllegalStateException("jdk.incubator.vector is not available");
+        } else {
+            ops = IntArrayOps.scalar();
+        }
+
+        a = new int[size];
+        b = new int[size];
+        va = new Vector<Value<?>>(size);
+        vb = new Vector<Value<?>>(size);
+        for (int i = 0; i < size; i++) {
+            a[i] = b[i] = i * 7;
+            va.add(new IntegerValue(a[i]));
+            vb.add(new IntegerValue(b[i]));
+        }
+        missing = new IntegerValue(-1);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        if (impl.equals("boxed"))
+            return va.contains(missing);
+
+        return ops.indexOf(a, size, missing.value()) >= 0;
+    }
+
+    @Benchmark
+    public boolean equals() {
+        if (impl.equals("boxed"))
+            return va.equals(vb);
+
+        return ops.equals(a, b, size);
+    }
+
+    @Benchmark
+    public Object concat() {
+        if (impl.equals("boxed")) {
+            Vector<Value<?>> v = new Vector<Value<?>>(2 * size);
+            v.addAll(va);
+            v.addAll(vb);
+            return v;
+        }
+
+        return ops.concat(a, size, b, size);
+    }
+
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import interpreter.command.Command;
+
+// Execução dos programas de scripts/: execute() roda a árvore já analisada,
+// endToEnd() inclui o léxico e a análise.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionBenchmark {
+
+    @Param({ "counting", "strings", "arrays", "dispatch", "bubblesort", "quicksort", "switch", "logic", "idioms" })
+    public String script;
+
+    private Path file;
+    private Command cmd;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() {
+        stdout = Scripts.silenceStdout();
+        file = Scripts.fromResource(script);
+        cmd = Scripts.parse(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public void execute() {
+        cmd.execute();
+    }
+
+    @Benchmark
+    public void endToEnd() {
+        Scripts.parse(file).execute();
+    }
+
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lexical.Lexeme;
+import lexical.LexicalAnalysis;
+import lexical.TokenType;
+
+// Vazão de nextToken() num script inteiro, no léxico atual e no antigo.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int statements;
+
+    private Path file;
+
+    @Setup
+    public void setup() {
+        file = Scripts.write("lexer", ScriptGenerator.generate(statements, 42L));
+    }
+
+    @Benchmark
+    public int tokenize() {
+        int count = 0;
+        try (LexicalAnalysis l = new LexicalAnalysis(file.toString())) {
+            Lexeme lex = l.nextToken();
+            while (lex.type != TokenType.END_OF_FILE) {
+                count++;
+                lex = l.nextToken();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int tokenizeLegacy() {
+        int count = 0;
+        try (LegacyLexer l = new LegacyLexer(file.toString())) {
+            Lexeme lex = l.nextToken();
+            while (lex.type != TokenType.END_OF_FILE) {
+                count++;
+                lex = l.nextToken();
+            }
+        }
+        return count;
+    }
+
+}
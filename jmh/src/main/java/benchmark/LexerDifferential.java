@@ -0,0 +1,257 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import lexical.Lexeme;
+import lexical.LexicalAnalysis;
+import lexical.LexicalException;
+import lexical.TokenType;
+
+// Compara LexicalAnalysis com LegacyLexer token a token (texto, tipo e
+// linha) em scripts gerados, nos dos benchmarks, em mutações deles e em
+// sequências aleatórias de tokens. As duas diferenças intencionais são só
+// contadas: um ! sozinho é token inválido, e uma string aberta no fim do
+// arquivo é UNEXPECTED_EOF. O léxico antigo lia bytes, então a comparação
+// usa ASCII; o UTF-8 é conferido à parte contra new String(bytes, UTF_8).
+//
+//   java -cp benchmarks.jar benchmark.LexerDifferential [inputs] [seed]
+public final class LexerDifferential {
+
+    private static final String[] SOUP = { " ", "  ", "\t", "\r", "\n", "\n", "#", "# x\n", ".", "..", "...", "=",
+            "==", "===", "<", "<=", ">", ">=", "*", "**", "!", "!=", "'", "'abc'", "';'", ";", ",", "+", "-", "%", "/",
+            "[", "]", "(", ")", "_", "a", "x1", "Zz_9", "é", "0", "42", "007", "if", "then", "elsif", "else",
+            "end", "while", "do", "until", "for", "in", "puts", "print", "gets", "rand", "and", "or", "not",
+            "length", "to_i", "to_s", "unless", "$", "@", "?", "\u007f" };
+
+    // Letras de um, dois, três e quatro bytes em UTF-8.
+    private static final String LETTERS = "abcXYZçãéõÿπλЖж中文語𝒜𝔘";
+    private static final String OTHERS = " 0123456789-+!?\n\t€→•©😀🎉\u0085\u00a0\u2028";
+
+    private final Random random;
+    private int inputs;
+    private long tokens;
+    private int loneBang;
+    private int openString;
+    private int mismatches;
+    private int decoded;
+
+    private LexerDifferential(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+
+        LexerDifferential d = run(count, seed);
+        System.out.printf("%d inputs, %d tokens, %d UTF-8 inputs, %d mismatches (%d lone '!', %d unterminated strings)%n",
+                d.inputs, d.tokens, d.decoded, d.mismatches, d.loneBang, d.openString);
+
+        if (d.mismatches != 0)
+            System.exit(1);
+    }
+
+    static LexerDifferential run(int count, long seed) throws IOException {
+        LexerDifferential d = new LexerDifferential(seed);
+        for (byte[] input : d.corpus(count))
+            d.compare(input);
+
+        for (int i = 0; i < count / 4; i++)
+            d.decoding();
+
+        return d;
+    }
+
+    int mismatches() {
+        return mismatches;
+    }
+
+    long tokens() {
+        return tokens;
+    }
+
+    private List<byte[]> corpus(int count) throws IOException {
+        List<byte[]> seeds = new ArrayList<byte[]>();
+        for (String name : new String[] { "counting", "strings", "arrays", "dispatch", "bubblesort", "quicksort",
+                "switch", "logic", "idioms" }) {
+            try (InputStream in = LexerDifferential.class.getResourceAsStream("/scripts/" + name + ".rb")) {
+                // Os comentários têm acentos; o léxico antigo só entende ASCII.
+                byte[] b = in.readAllBytes();
+                for (int i = 0; i < b.length; i++) {
+                    if (b[i] < 0)
+                        b[i] = 'x';
+                }
+                seeds.add(b);
+            }
+        }
+        for (int i = 0; i < 8; i++)
+            seeds.add(ScriptGenerator.generate(50 + 50 * i, i).getBytes(StandardCharsets.UTF_8));
+
+        List<byte[]> corpus = new ArrayList<byte[]>(seeds);
+        while (corpus.size() < count) {
+            if (random.nextBoolean())
+                corpus.add(mutate(seeds.get(random.nextInt(seeds.size()))));
+            else
+                corpus.add(soup());
+        }
+
+        return corpus;
+    }
+
+    private byte[] mutate(byte[] seed) {
+        byte[] b = seed.clone();
+        int edits = 1 + random.nextInt(8);
+        for (int i = 0; i < edits && b.length > 0; i++)
+            b[random.nextInt(b.length)] = (byte) random.nextInt(128);
+
+        // Às vezes corta no meio de um token.
+        if (random.nextInt(4) == 0)
+            b = Arrays.copyOf(b, random.nextInt(b.length + 1));
+
+        return b;
+    }
+
+    private byte[] soup() {
+        StringBuilder sb = new StringBuilder();
+        int n = random.nextInt(60);
+        for (int i = 0; i < n; i++)
+            sb.append(SOUP[random.nextInt(SOUP.length)]);
+
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // s = '<texto>'; v_<letras> = 1;  precedido de um comentário de tamanho
+    // aleatório, para que os limites do buffer caiam em qualquer posição.
+    private void decoding() {
+        decoded++;
+        byte[] text;
+        if (random.nextInt(3) == 0) {
+            // Bytes quaisquer, exceto ' e ; que encerram a string.
+            text = new byte[random.nextInt(40)];
+            for (int i = 0; i < text.length; i++) {
+                int b = random.nextInt(3) == 0 ? 'a' + random.nextInt(26) : 0x80 + random.nextInt(128);
+                text[i] = (byte) b;
+            }
+        } else {
+            int n = random.nextInt(8) == 0 ? 9000 + random.nextInt(200) : random.nextInt(40);
+            text = randomText(n, LETTERS + OTHERS).getBytes(StandardCharsets.UTF_8);
+        }
+        String ident = "v_" + randomText(1 + random.nextInt(6), LETTERS);
+
+        StringBuilder pad = new StringBuilder("#");
+        int padding = random.nextInt(8200);
+        for (int i = 0; i < padding; i++)
+            pad.append('x');
+        pad.append('\n');
+
+        byte[] head = (pad + "s = '").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("';\n" + ident + " = 1;\n").getBytes(StandardCharsets.UTF_8);
+        byte[] input = new byte[head.length + text.length + tail.length];
+        System.arraycopy(head, 0, input, 0, head.length);
+        System.arraycopy(text, 0, input, head.length, text.length);
+        System.arraycopy(tail, 0, input, head.length + text.length, tail.length);
+
+        String[] expected = { "s", "=", new String(text, StandardCharsets.UTF_8), ";", ident, "=", "1", ";", "" };
+        TokenType[] types = { TokenType.ID, TokenType.ASSIGN, TokenType.STRING, TokenType.SEMI_COLON, TokenType.ID,
+                TokenType.ASSIGN, TokenType.INTEGER, TokenType.SEMI_COLON, TokenType.END_OF_FILE };
+
+        LexicalAnalysis lexer = new LexicalAnalysis(new ByteArrayInputStream(input));
+        for (int i = 0; i < expected.length; i++) {
+            Lexeme lex = lexer.nextToken();
+            if (!lex.token.equals(expected[i]) || lex.type != types[i]) {
+                report(input, "expected " + types[i] + " [" + expected[i] + "]", lex);
+                return;
+            }
+        }
+    }
+
+    private String randomText(int n, String pool) {
+        int[] cps = pool.codePoints().toArray();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++)
+            sb.appendCodePoint(cps[random.nextInt(cps.length)]);
+
+        return sb.toString();
+    }
+
+    private void compare(byte[] input) {
+        inputs++;
+        LegacyLexer expected = new LegacyLexer(new EofLimitedStream(input));
+        LexicalAnalysis actual = new LexicalAnalysis(new ByteArrayInputStream(input));
+
+        while (true) {
+            Lexeme b = actual.nextToken();
+            if (b.type == TokenType.INVALID_TOKEN && b.token.equals("!")) {
+                loneBang++;
+                return;
+            }
+
+            Lexeme a;
+            try {
+                a = expected.nextToken();
+            } catch (LexicalException e) {
+                if (b.type == TokenType.UNEXPECTED_EOF)
+                    openString++;
+                else
+                    report(input, "legacy lexer did not return", b);
+                return;
+            }
+
+            tokens++;
+            if (!a.token.equals(b.token) || a.type != b.type || expected.getLine() != actual.getLine()) {
+                report(input, "expected " + a.type + " [" + a.token + "] line " + expected.getLine(), b);
+                return;
+            }
+
+            if (a.type == TokenType.END_OF_FILE)
+                return;
+        }
+    }
+
+    private void report(byte[] input, String expected, Lexeme actual) {
+        mismatches++;
+        if (mismatches <= 10) {
+            System.out.println("Mismatch: " + expected + ", got " + actual.type + " [" + actual.token + "]");
+            String text = new String(input, StandardCharsets.UTF_8).replace("\n", "\\n");
+            System.out.println("  input: " + (text.length() > 200 ? text.substring(0, 200) + "..." : text));
+        }
+    }
+
+    // O léxico antigo lê o fim de arquivo para sempre numa string aberta;
+    // aqui a leitura falha depois de algumas tentativas.
+    private static final class EofLimitedStream extends ByteArrayInputStream {
+
+        private int eofs;
+
+        EofLimitedStream(byte[] buf) {
+            super(buf);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            int n = super.read(b, off, len);
+            if (n < 0 && ++eofs > 16)
+                throw new IllegalStateException("read past end of input");
+
+            return n;
+        }
+
+        @Override
+        public synchronized int read() {
+            int n = super.read();
+            if (n < 0 && ++eofs > 16)
+                throw new IllegalStateException("read past end of input");
+
+            return n;
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import interpreter.util.Memory;
+import interpreter.value.IntegerValue;
+
+// Memory.read e Memory.write com a memória já populada.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+
+    @Param({ "8", "256" })
+    public int variables;
+
+    private String[] names;
+    private IntegerValue value;
+
+    @Setup
+    public void setup() {
+        names = new String[variables];
+        for (int i = 0; i < variables; i++) {
+            names[i] = "var" + i;
+            Memory.write(names[i], new IntegerValue(i));
+        }
+        value = new IntegerValue(42);
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) {
+        for (String name : names)
+            bh.consume(Memory.read(name));
+    }
+
+    @Benchmark
+    public void write() {
+        for (String name : names)
+            Memory.write(name, value);
+    }
+
+}
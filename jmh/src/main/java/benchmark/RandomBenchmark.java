@@ -0,0 +1,73 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import interpreter.util.RandomSource;
+
+// Custo de um rand: random é o antigo Random compartilhado, splittable um
+// SplittableRandom por chamada e source o RandomSource atual.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomBenchmark {
+
+    private static final int CALLS = 1024;
+
+    private Random random;
+    private SplittableRandom splittable;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+        splittable = new SplittableRandom(42);
+        RandomSource.setSeed(42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int random() {
+        int sum = 0;
+        for (int i = 0; i < CALLS; i++)
+            sum += random.nextInt(Integer.MAX_VALUE);
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int splittable() {
+        int sum = 0;
+        for (int i = 0; i < CALLS; i++)
+            sum += splittable.nextInt(Integer.MAX_VALUE);
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int source() {
+        int sum = 0;
+        for (int i = 0; i < CALLS; i++)
+            sum += RandomSource.nextInt();
+
+        return sum;
+    }
+
+}
@@ -0,0 +1,142 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+// Gera scripts sintéticos com o número de comandos pedido, sempre iguais
+// para a mesma semente.
+//
+//   java -cp benchmarks.jar benchmark.ScriptGenerator [statements] [seed] [file]
+public final class ScriptGenerator {
+
+    private static final String[] VARS = { "a", "b", "c", "d", "n", "acc", "tmp" };
+
+    private final Random random;
+    private final StringBuilder out = new StringBuilder();
+    private int statements;
+
+    private ScriptGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static String generate(int statements, long seed) {
+        ScriptGenerator g = new ScriptGenerator(seed);
+        g.prelude();
+        while (g.statements < statements)
+            g.statement(0);
+
+        return g.out.toString();
+    }
+
+    private void prelude() {
+        for (String v : VARS)
+            line(0, v + " = " + random.nextInt(100) + ";");
+
+        line(0, "s = '';");
+        line(0, "arr = [1, 2, 3, 4, 5, 6, 7, 8];");
+    }
+
+    private void statement(int depth) {
+        int kind = depth > 2 ? random.nextInt(4) : random.nextInt(8);
+        switch (kind) {
+            case 0:
+            case 1:
+                line(depth, var() + " = " + arith() + ";");
+                break;
+            case 2:
+                line(depth, "s = s + '" + (char) ('a' + random.nextInt(26)) + "';");
+                break;
+            case 3:
+                line(depth, "arr[" + random.nextInt(8) + "] = " + arith() + ";");
+                break;
+            case 4:
+                line(depth, "if " + cond() + " then");
+                block(depth + 1);
+                line(depth, "elsif " + cond() + " then");
+                block(depth + 1);
+                line(depth, "else");
+                block(depth + 1);
+                line(depth, "end");
+                break;
+            case 5:
+                // Cada nível de aninhamento usa seu próprio contador.
+                String i = "i" + depth;
+                line(depth, i + " = 0;");
+                line(depth, "while " + i + " < " + (1 + random.nextInt(10)) + " do");
+                block(depth + 1);
+                line(depth + 1, i + " = " + i + " + 1;");
+                line(depth, "end");
+                break;
+            case 6:
+                line(depth, "for x in 0.." + random.nextInt(10) + " do");
+                block(depth + 1);
+                line(depth, "end");
+                break;
+            default:
+                line(depth, "tmp = arr[" + random.nextInt(8) + "] + s.length;");
+                break;
+        }
+        statements++;
+    }
+
+    private void block(int depth) {
+        int n = 1 + random.nextInt(3);
+        for (int k = 0; k < n; k++)
+            statement(depth);
+    }
+
+    private String var() {
+        return VARS[random.nextInt(VARS.length)];
+    }
+
+    private String operand() {
+        return random.nextBoolean() ? var() : Integer.toString(random.nextInt(1000));
+    }
+
+    private String arith() {
+        String[] ops = { "+", "-", "*", "%" };
+        String op = ops[random.nextInt(ops.length)];
+        // Evita divisão por zero e crescimento sem limite.
+        if (op.equals("%"))
+            return operand() + " % " + (1 + random.nextInt(97));
+
+        if (op.equals("*"))
+            return "(" + operand() + " % 100) * " + random.nextInt(10);
+
+        return operand() + " " + op + " " + operand();
+    }
+
+    private String cond() {
+        String[] ops = { "==", "!=", "<", "<=", ">", ">=" };
+        String c = var() + " " + ops[random.nextInt(ops.length)] + " " + operand();
+        if (random.nextInt(4) == 0)
+            c += (random.nextBoolean() ? " and " : " or ") + var() + " < " + random.nextInt(500);
+
+        return c;
+    }
+
+    private void line(int depth, String text) {
+        for (int k = 0; k < depth; k++)
+            out.append("  ");
+
+        out.append(text).append('\n');
+    }
+
+    public static void main(String[] args) throws IOException {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        String source = generate(statements, seed);
+
+        if (args.length > 2) {
+            Path file = Paths.get(args[2]);
+            Files.writeString(file, source, StandardCharsets.UTF_8);
+        } else {
+            System.out.print(source);
+        }
+    }
+
+}
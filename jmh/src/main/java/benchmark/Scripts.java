@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import interpreter.command.Command;
+import lexical.LexicalAnalysis;
+import syntatic.SyntaticAnalysis;
+
+// Apoio aos benchmarks: grava os scripts em disco (o léxico só lê arquivos)
+// e os analisa.
+final class Scripts {
+
+    private Scripts() {
+    }
+
+    static Path fromResource(String name) {
+        try (InputStream in = Scripts.class.getResourceAsStream("/scripts/" + name + ".rb")) {
+            if (in == null)
+                throw new IllegalArgumentException("Unknown script: " + name);
+
+            return write(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Path write(String name, String source) {
+        try {
+            Path file = Files.createTempFile("mrbi-" + name + "-", ".rb");
+            file.toFile().deleteOnExit();
+            Files.writeString(file, source, StandardCharsets.UTF_8);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Command parse(Path file) {
+        try (LexicalAnalysis l = new LexicalAnalysis(file.toString())) {
+            return new SyntaticAnalysis(l).start();
+        }
+    }
+
+    // Descarta o que os scripts escrevem com puts e print.
+    static PrintStream silenceStdout() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import lexical.SymbolTable;
+
+// SymbolTable.find para palavras-chave, operadores e identificadores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolTableBenchmark {
+
+    private SymbolTable st;
+    private String[] keywords;
+    private String[] identifiers;
+
+    @Setup
+    public void setup() {
+        st = new SymbolTable();
+        keywords = new String[] { "if", "then", "elsif", "else", "end", "while", "do", "puts", "==", "+", ";", "[" };
+        // Identificadores são criados em tempo de execução, como faz o léxico.
+        identifiers = new String[] { new String("i"), new String("sum"), new String("counter"),
+                new String("acc"), new String("result_value"), new String("x1") };
+    }
+
+    @Benchmark
+    public void findKeywords(Blackhole bh) {
+        for (String k : keywords)
+            bh.consume(st.find(k));
+    }
+
+    @Benchmark
+    public void findIdentifiers(Blackhole bh) {
+        for (String id : identifiers)
+            bh.consume(st.find(id));
+    }
+
+}
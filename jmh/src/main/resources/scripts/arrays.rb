@@ -0,0 +1,11 @@
+# Preenche um arranjo e soma seus elementos.
+a = [];
+i = 0;
+while i < 10000 do
+  a[i] = i * 2;
+  i = i + 1;
+end
+sum = 0;
+for x in a do
+  sum = sum + x;
+end
@@ -0,0 +1,18 @@
+# Bubble sort sobre um arranjo em ordem decrescente.
+n = 300;
+a = [];
+i = 0;
+while i < n do
+  a[i] = n - i;
+  i = i + 1;
+end
+i = 0;
+while i < n - 1 do
+  j = 0;
+  while j < n - 1 - i do
+    k = j + 1;
+    a[j], a[k] = a[k], a[j] if a[j] > a[k];
+    j = j + 1;
+  end
+  i = i + 1;
+end
@@ -0,0 +1,7 @@
+# Laço de contagem com aritmética inteira.
+i = 0;
+sum = 0;
+while i < 100000 do
+  sum = sum + i % 7;
+  i = i + 1;
+end
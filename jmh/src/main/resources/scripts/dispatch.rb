@@ -0,0 +1,24 @@
+# Cadeia de if/elsif sobre uma mesma variável.
+i = 0;
+acc = 0;
+while i < 20000 do
+  op = i % 8;
+  if op == 0 then
+    acc = acc + 1;
+  elsif op == 1 then
+    acc = acc + 2;
+  elsif op == 2 then
+    acc = acc - 1;
+  elsif op == 3 then
+    acc = acc * 1;
+  elsif op == 4 then
+    acc = acc + 3;
+  elsif op == 5 then
+    acc = acc - 2;
+  elsif op == 6 then
+    acc = acc + 4;
+  else
+    acc = acc - 3;
+  end
+  i = i + 1;
+end
@@ -0,0 +1,22 @@
+# As formas mais comuns dos scripts: incremento, comparação com variável,
+# leitura indexada e concatenação.
+a = [3, 1, 4, 1, 5, 9, 2, 6, 5, 3];
+n = 10;
+i = 0;
+total = 0;
+while i < 20000 do
+  j = 0;
+  while j < n do
+    x = a[j];
+    total = total + 1 if x > 4;
+    j = j + 1;
+  end
+  i = i + 1;
+end
+s = '';
+k = 0;
+until k >= 2000 do
+  s = s + 'x';
+  k = k + 1;
+end
+puts total;
@@ -0,0 +1,16 @@
+# Cadeias longas de and/or; a cláusula que decide fica no fim.
+i = 0;
+hits = 0;
+done = 0;
+while i < 20000 do
+  c = i % 8;
+  d = i % 3;
+  if c == 1 or c == 2 or c == 3 or c == 4 or c == 5 or d == 0 then
+    hits = hits + 1;
+  end
+  if done != 1 and c != 9 and d != 5 and c != 10 and d == 1 then
+    hits = hits + 2;
+  end
+  i = i + 1;
+end
+puts hits;
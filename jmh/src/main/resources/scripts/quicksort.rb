@@ -0,0 +1,35 @@
+# Quicksort iterativo (Lomuto), com pilha explícita de intervalos.
+n = 3000;
+a = [];
+i = 0;
+x = 12345;
+while i < n do
+  x = (x * 1103 + 12345) % 65536;
+  a[i] = x;
+  i = i + 1;
+end
+stack = [0, n - 1];
+top = 2;
+while top > 0 do
+  top = top - 2;
+  lo = stack[top];
+  hi = stack[top + 1];
+  if lo < hi then
+    pivot = a[hi];
+    i = lo;
+    j = lo;
+    while j < hi do
+      if a[j] < pivot then
+        a[i], a[j] = a[j], a[i];
+        i = i + 1;
+      end
+      j = j + 1;
+    end
+    a[i], a[hi] = a[hi], a[i];
+    stack[top] = lo;
+    stack[top + 1] = i - 1;
+    stack[top + 2] = i + 1;
+    stack[top + 3] = hi;
+    top = top + 4;
+  end
+end
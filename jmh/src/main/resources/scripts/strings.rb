@@ -0,0 +1,8 @@
+# Construção de string por concatenação.
+s = '';
+i = 0;
+while i < 2000 do
+  s = s + 'x';
+  i = i + 1;
+end
+n = s.length;
@@ -0,0 +1,138 @@
+# Despachante gerado: cadeia if/elsif com 64 braços sobre 'op'.
+i = 0;
+acc = 0;
+while i < 20000 do
+  op = (i * 7) % 70;
+  if op == 0 then
+    acc = acc + 1;
+  elsif op == 1 then
+    acc = acc + 2;
+  elsif op == 2 then
+    acc = acc + 3;
+  elsif op == 3 then
+    acc = acc + 4;
+  elsif op == 4 then
+    acc = acc + 5;
+  elsif op == 5 then
+    acc = acc + 1;
+  elsif op == 6 then
+    acc = acc + 2;
+  elsif op == 7 then
+    acc = acc + 3;
+  elsif op == 8 then
+    acc = acc + 4;
+  elsif op == 9 then
+    acc = acc + 5;
+  elsif op == 10 then
+    acc = acc + 1;
+  elsif op == 11 then
+    acc = acc + 2;
+  elsif op == 12 then
+    acc = acc + 3;
+  elsif op == 13 then
+    acc = acc + 4;
+  elsif op == 14 then
+    acc = acc + 5;
+  elsif op == 15 then
+    acc = acc + 1;
+  elsif op == 16 then
+    acc = acc + 2;
+  elsif op == 17 then
+    acc = acc + 3;
+  elsif op == 18 then
+    acc = acc + 4;
+  elsif op == 19 then
+    acc = acc + 5;
+  elsif op == 20 then
+    acc = acc + 1;
+  elsif op == 21 then
+    acc = acc + 2;
+  elsif op == 22 then
+    acc = acc + 3;
+  elsif op == 23 then
+    acc = acc + 4;
+  elsif op == 24 then
+    acc = acc + 5;
+  elsif op == 25 then
+    acc = acc + 1;
+  elsif op == 26 then
+    acc = acc + 2;
+  elsif op == 27 then
+    acc = acc + 3;
+  elsif op == 28 then
+    acc = acc + 4;
+  elsif op == 29 then
+    acc = acc + 5;
+  elsif op == 30 then
+    acc = acc + 1;
+  elsif op == 31 then
+    acc = acc + 2;
+  elsif op == 32 then
+    acc = acc + 3;
+  elsif op == 33 then
+    acc = acc + 4;
+  elsif op == 34 then
+    acc = acc + 5;
+  elsif op == 35 then
+    acc = acc + 1;
+  elsif op == 36 then
+    acc = acc + 2;
+  elsif op == 37 then
+    acc = acc + 3;
+  elsif op == 38 then
+    acc = acc + 4;
+  elsif op == 39 then
+    acc = acc + 5;
+  elsif op == 40 then
+    acc = acc + 1;
+  elsif op == 41 then
+    acc = acc + 2;
+  elsif op == 42 then
+    acc = acc + 3;
+  elsif op == 43 then
+    acc = acc + 4;
+  elsif op == 44 then
+    acc = acc + 5;
+  elsif op == 45 then
+    acc = acc + 1;
+  elsif op == 46 then
+    acc = acc + 2;
+  elsif op == 47 then
+    acc = acc + 3;
+  elsif op == 48 then
+    acc = acc + 4;
+  elsif op == 49 then
+    acc = acc + 5;
+  elsif op == 50 then
+    acc = acc + 1;
+  elsif op == 51 then
+    acc = acc + 2;
+  elsif op == 52 then
+    acc = acc + 3;
+  elsif op == 53 then
+    acc = acc + 4;
+  elsif op == 54 then
+    acc = acc + 5;
+  elsif op == 55 then
+    acc = acc + 1;
+  elsif op == 56 then
+    acc = acc + 2;
+  elsif op == 57 then
+    acc = acc + 3;
+  elsif op == 58 then
+    acc = acc + 4;
+  elsif op == 59 then
+    acc = acc + 5;
+  elsif op == 60 then
+    acc = acc + 1;
+  elsif op == 61 then
+    acc = acc + 2;
+  elsif op == 62 then
+    acc = acc + 3;
+  elsif op == 63 then
+    acc = acc + 4;
+  else
+    acc = acc - 1;
+  end
+  i = i + 1;
+end
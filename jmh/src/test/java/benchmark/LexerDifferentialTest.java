@@ -0,0 +1,22 @@
+package benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// O léxico novo devolve os mesmos tokens, tipos e linhas que o antigo,
+// fora as duas diferenças intencionais (ver LexerDifferential).
+class LexerDifferentialTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = { 42L, 2024L })
+    void sameTokensAsLegacyLexer(long seed) throws Exception {
+        LexerDifferential d = LexerDifferential.run(4000, seed);
+
+        assertTrue(d.tokens() > 0);
+        assertEquals(0, d.mismatches());
+    }
+
+}